@@ -0,0 +1,100 @@
+package com.minesweeper.benchmark;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.repository.CellBatchRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the {@code cell} rows of a square board against PostgreSQL: one INSERT round trip
+ * per row (what {@code saveAll} did without Hibernate batching) against {@link CellBatchRepository}
+ * in batch and COPY mode. Each invocation runs in a transaction that is rolled back afterwards.
+ * <p>
+ * Needs a reachable database; rows go to a temporary {@code cell} table that shadows the real one:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CellInsertBenchmark -f 1 -jvmArgsAppend
+ *     -Djdbc.url=jdbc:postgresql://localhost:5432/minesweeper?reWriteBatchedInserts=true"
+ * </pre>
+ * {@code -Djdbc.user} and {@code -Djdbc.password} default to {@code postgres}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+public class CellInsertBenchmark {
+    private static final String INSERT = "INSERT INTO cell (id, game_id, row, col, has_mine, revealed, surrounding_mines) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param({"100", "500"})
+    private int size;
+
+    private Connection connection;
+    private Board board;
+    private CellBatchRepository batch;
+    private CellBatchRepository copy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("jdbc.url", "jdbc:postgresql://localhost:5432/minesweeper?reWriteBatchedInserts=true"),
+                System.getProperty("jdbc.user", "postgres"), System.getProperty("jdbc.password", "postgres"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE cell (id uuid PRIMARY KEY, game_id uuid NOT NULL, row int, col int, "
+                    + "has_mine boolean, revealed boolean, surrounding_mines int NOT NULL DEFAULT 0)");
+        }
+        connection.setAutoCommit(false);
+
+        board = new MinePlacer().generate(size, size, size * size / 6, 42);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        batch = new CellBatchRepository(jdbcTemplate, "batch", 1000);
+        copy = new CellBatchRepository(jdbcTemplate, "copy", 1000);
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void perRow() throws SQLException {
+        UUID gameId = UUID.randomUUID();
+        try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+            for (int index = 0; index < board.size(); index++) {
+                statement.setObject(1, UUID.randomUUID());
+                statement.setObject(2, gameId);
+                statement.setInt(3, board.row(index));
+                statement.setInt(4, board.col(index));
+                statement.setBoolean(5, board.isMine(index));
+                statement.setBoolean(6, board.isRevealed(index));
+                statement.setInt(7, board.getCount(index));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    public void batch() {
+        batch.insertAll(UUID.randomUUID(), board);
+    }
+
+    @Benchmark
+    public void copy() {
+        copy.insertAll(UUID.randomUUID(), board);
+    }
+}
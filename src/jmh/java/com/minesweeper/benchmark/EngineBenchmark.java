@@ -0,0 +1,143 @@
+package com.minesweeper.benchmark;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.GameDifficulty;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of a game on the in-memory engine: generation, mine placement, reveals, the
+ * worst-case flood fill, the win check and the snapshot written after a move.
+ * <p>
+ * Boards are the standard difficulties plus large custom squares with MEDIUM's mine density.
+ * Benchmarks that mutate the board start every invocation from a fresh copy restored outside
+ * the measurement. Run with {@code -prof gc} (the profile's default) for allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EngineBenchmark {
+    private static final long SEED = 42;
+
+    @Param({"EASY", "MEDIUM", "OLYMPIC", "256x256", "1024x1024"})
+    private String board;
+
+    private int width;
+    private int height;
+    private int mines;
+    private MinePlacer minePlacer;
+    private long seed;
+
+    private Board generated;
+    private byte[] snapshot;
+    private int[] numbered;
+    private byte[] emptySnapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (board.contains("x")) {
+            String[] size = board.split("x");
+            width = Integer.parseInt(size[0]);
+            height = Integer.parseInt(size[1]);
+            mines = width * height * GameDifficulty.MEDIUM.getMines()
+                    / (GameDifficulty.MEDIUM.getWidth() * GameDifficulty.MEDIUM.getHeight());
+        } else {
+            GameDifficulty difficulty = GameDifficulty.valueOf(board);
+            width = difficulty.getWidth();
+            height = difficulty.getHeight();
+            mines = difficulty.getMines();
+        }
+        minePlacer = new MinePlacer();
+        generated = minePlacer.generate(width, height, mines, SEED, centre());
+        snapshot = BoardCodec.encode(generated);
+
+        numbered = new int[generated.size()];
+        int count = 0;
+        for (int index = 0; index < generated.size(); index++) {
+            if (!generated.isMine(index) && generated.getCount(index) > 0) {
+                numbered[count++] = index;
+            }
+        }
+        numbered = Arrays.copyOf(numbered, count);
+
+        // A single mine in a corner: clicking the opposite corner opens the whole board
+        Board empty = new Board(width, height);
+        empty.placeMine(0);
+        empty.computeCounts();
+        emptySnapshot = BoardCodec.encode(empty);
+    }
+
+    @Benchmark
+    public Board generateBoard() {
+        return minePlacer.generate(width, height, mines, seed++, centre());
+    }
+
+    @Benchmark
+    public Board placeMines() {
+        return minePlacer.placeMines(width, height, mines, seed++, centre());
+    }
+
+    /**
+     * Opens every numbered square one at a time, the way a player clears the board; each reveal
+     * stops at the square itself.
+     */
+    @Benchmark
+    public int revealNumbers(FreshBoards boards) {
+        Board fresh = boards.board;
+        int revealed = 0;
+        for (int index : numbered) {
+            if (fresh.reveal(index)) {
+                revealed += 1 + fresh.floodFill(index).length;
+            }
+        }
+        return revealed;
+    }
+
+    @Benchmark
+    public int[] floodFillWorstCase(FreshBoards boards) {
+        Board empty = boards.empty;
+        int start = empty.size() - 1;
+        empty.reveal(start);
+        return empty.floodFill(start);
+    }
+
+    @Benchmark
+    public boolean checkWin() {
+        return generated.isWon();
+    }
+
+    @Benchmark
+    public byte[] encodeSnapshot() {
+        return BoardCodec.encode(generated, false);
+    }
+
+    @Benchmark
+    public Board decodeSnapshot() {
+        return BoardCodec.decode(snapshot);
+    }
+
+    private int centre() {
+        return (height / 2) * width + width / 2;
+    }
+
+    /**
+     * Unrevealed copies of the benchmark boards, restored before every invocation.
+     */
+    @State(Scope.Thread)
+    public static class FreshBoards {
+        private Board board;
+        private Board empty;
+
+        @Setup(Level.Invocation)
+        public void restore(EngineBenchmark benchmark) {
+            board = BoardCodec.decode(benchmark.snapshot);
+            empty = BoardCodec.decode(benchmark.emptySnapshot);
+        }
+    }
+}
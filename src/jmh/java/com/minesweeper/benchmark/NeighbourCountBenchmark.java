@@ -0,0 +1,56 @@
+package com.minesweeper.benchmark;
+
+import com.minesweeper.engine.NeighbourCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-board neighbour count pass, Vector API against the scalar fallback.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NeighbourCountBenchmark {
+
+    @Param({"9", "30", "256", "1024", "4096"})
+    private int size;
+
+    @Param({"0.15"})
+    private double density;
+
+    private BitSet mines;
+    private byte[] counts;
+    private NeighbourCounter vector;
+    private NeighbourCounter scalar;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        mines = new BitSet(size * size);
+        for (int i = 0; i < size * size; i++) {
+            if (random.nextDouble() < density) {
+                mines.set(i);
+            }
+        }
+        counts = new byte[size * size];
+        vector = NeighbourCounter.getInstance();
+        scalar = NeighbourCounter.scalar();
+    }
+
+    @Benchmark
+    public byte[] preferred() {
+        vector.count(mines, size, size, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public byte[] scalar() {
+        scalar.count(mines, size, size, counts);
+        return counts;
+    }
+}
@@ -0,0 +1,167 @@
+package com.minesweeper.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Closed-loop load test of {@code POST /api/turn} against a running server.
+ * <p>
+ * Each client thread keeps one request in flight, clicking random squares of a shared set of
+ * games and replacing games that end. Compare the platform thread pool with virtual threads by
+ * running the server once with {@code spring.threads.virtual.enabled=false} and once with
+ * {@code true} (Java 21+), then running this against each:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load -Dload.args="--user &lt;uuid&gt; --clients 400 --duration PT60S"
+ * </pre>
+ * Options: {@code --url} (default http://localhost:8080), {@code --user} (an existing user id),
+ * {@code --clients} (200), {@code --games} (1000), {@code --difficulty} (OLYMPIC),
+ * {@code --duration} (PT30S), {@code --warmup} (PT10S).
+ */
+public class TurnLoadTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String url;
+    private final String userId;
+    private final String difficulty;
+    private final AtomicReferenceArray<Game> games;
+
+    private record Game(String id, int width, int height) {
+    }
+
+    private TurnLoadTest(String url, String userId, String difficulty, int games) {
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.url = url;
+        this.userId = userId;
+        this.difficulty = difficulty;
+        this.games = new AtomicReferenceArray<>(games);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        if (!options.containsKey("user")) {
+            throw new IllegalArgumentException("--user <id of an existing user> is required");
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        TurnLoadTest test = new TurnLoadTest(options.getOrDefault("url", "http://localhost:8080"), options.get("user"),
+                options.getOrDefault("difficulty", "OLYMPIC"), Integer.parseInt(options.getOrDefault("games", "1000")));
+
+        for (int slot = 0; slot < test.games.length(); slot++) {
+            test.games.set(slot, test.createGame());
+        }
+        System.out.printf("Warmup %s with %d clients%n", warmup, clients);
+        test.run(clients, warmup);
+        System.out.printf("Measuring %s with %d clients%n", duration, clients);
+        Result result = test.run(clients, duration);
+        System.out.printf("turns=%d errors=%d throughput=%.1f/s p50=%.2fms p99=%.2fms max=%.2fms%n",
+                result.latencies.length, result.errors, result.latencies.length / (duration.toNanos() / 1e9),
+                result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+    }
+
+    private Result run(int clients, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            Future<?>[] futures = new Future<?>[clients];
+            Result[] results = new Result[clients];
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures[c] = executor.submit(() -> {
+                    results[client] = play(client, deadline);
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return Result.merge(results);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result play(int clientIndex, long deadline) throws Exception {
+        SplittableRandom random = new SplittableRandom(clientIndex);
+        long[] latencies = new long[1024];
+        int count = 0;
+        int errors = 0;
+        while (System.nanoTime() < deadline) {
+            int slot = random.nextInt(games.length());
+            Game game = games.get(slot);
+            String body = "{\"userId\":\"" + userId + "\",\"gameId\":\"" + game.id()
+                    + "\",\"row\":" + random.nextInt(game.height()) + ",\"col\":" + random.nextInt(game.width()) + "}";
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(post("/api/turn", body), HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - start;
+
+            if (response.statusCode() != 200) {
+                // Another client finished the game first; the next click on this slot uses a new one
+                errors++;
+                games.compareAndSet(slot, game, createGame());
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!"IN_PROGRESS".equals(MAPPER.readTree(response.body()).path("state").asText())) {
+                games.compareAndSet(slot, game, createGame());
+            }
+        }
+        return new Result(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private Game createGame() throws Exception {
+        HttpResponse<String> response = client.send(post("/api/new/standard?userId=" + userId
+                + "&difficulty=" + difficulty, ""), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Cannot create a game: HTTP " + response.statusCode());
+        }
+        JsonNode game = MAPPER.readTree(response.body());
+        return new Game(UUID.fromString(game.path("id").asText()).toString(),
+                game.path("width").asInt(), game.path("height").asInt());
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        static Result merge(Result[] results) {
+            long[] latencies = Arrays.stream(results).flatMapToLong(r -> Arrays.stream(r.latencies)).sorted().toArray();
+            return new Result(latencies, Arrays.stream(results).mapToInt(Result::errors).sum());
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
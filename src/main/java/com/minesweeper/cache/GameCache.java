@@ -0,0 +1,332 @@
+package com.minesweeper.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.history.MoveLog;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.service.BoardStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Write-behind cache of in-progress games keyed by game id.
+ * <p>
+ * Moves mutate the cached game and only mark it dirty; dirty games are written through the
+ * {@link BoardStore} in batches by a scheduled flush and when they finish, together with the moves
+ * they buffered for the {@link GameHistory}. Entries are bounded by count and expire after a
+ * period without access.
+ * <p>
+ * A dirty game that is evicted is parked until the next flush writes it, and a load of the same
+ * id in the meantime picks up the parked instance instead of the stale row. Together with the
+ * per-game lock of {@link GameLocks} around loads and moves, there is never more than one live
+ * instance of a game. Moves and writes of one game are serialised on {@link LiveGame#lock()}.
+ */
+@Component
+public class GameCache implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(GameCache.class);
+
+    private final BoardStore boardStore;
+    private final GameHistory gameHistory;
+    private final TransactionOperations transactionOperations;
+    private final int flushBatchSize;
+    private final Cache<UUID, LiveGame> cache;
+    private final Set<UUID> dirtyGames = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, LiveGame> evictedDirtyGames = new ConcurrentHashMap<>();
+    private final Set<UUID> conflictedGames = ConcurrentHashMap.newKeySet();
+    private Counter conflictCounter;
+    private volatile Consumer<Game> finishedListener = game -> {
+    };
+
+    public GameCache(BoardStore boardStore, GameHistory gameHistory, TransactionOperations transactionOperations,
+                     @Value("${minesweeper.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${minesweeper.cache.expire-after-access:PT30M}") Duration expireAfterAccess,
+                     @Value("${minesweeper.cache.flush-batch-size:100}") int flushBatchSize) {
+        this.boardStore = boardStore;
+        this.gameHistory = gameHistory;
+        this.transactionOperations = transactionOperations;
+        this.flushBatchSize = flushBatchSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .evictionListener(this::onEviction)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached game, loading it on a miss. Concurrent misses for the same id load once.
+     * Callers that mutate the game must hold its {@link GameLocks} lock.
+     * @param gameId the game identifier
+     * @param loader loads the game; may throw to signal that it does not exist
+     * @return the live game
+     */
+    public LiveGame get(UUID gameId, Function<UUID, LiveGame> loader) {
+        LiveGame liveGame = cache.get(gameId, id -> {
+            LiveGame parked = evictedDirtyGames.remove(id);
+            return parked != null ? parked : loader.apply(id);
+        });
+        if (liveGame.isDirty()) {
+            // Changed by the loader, or parked and not yet flushed
+            dirtyGames.add(gameId);
+        }
+        return liveGame;
+    }
+
+    /**
+     * Returns the live game without loading it or touching the statistics.
+     */
+    public LiveGame getIfCached(UUID gameId) {
+        LiveGame liveGame = cache.asMap().get(gameId);
+        return liveGame != null ? liveGame : evictedDirtyGames.get(gameId);
+    }
+
+    public void put(LiveGame liveGame) {
+        cache.put(liveGame.getGame().getId(), liveGame);
+    }
+
+    /**
+     * Writes the game and drops it, e.g. when another node takes it over. The caller holds the
+     * game's {@link GameLocks} lock, so no move slips in between.
+     */
+    public void release(LiveGame liveGame) {
+        flush(liveGame);
+        UUID gameId = liveGame.getGame().getId();
+        cache.asMap().remove(gameId, liveGame);
+        evictedDirtyGames.remove(gameId, liveGame);
+    }
+
+    /**
+     * Ids of the games held in memory, parked ones included.
+     */
+    public Set<UUID> cachedGameIds() {
+        Set<UUID> gameIds = new HashSet<>(cache.asMap().keySet());
+        gameIds.addAll(evictedDirtyGames.keySet());
+        return gameIds;
+    }
+
+    /**
+     * Records changed squares; the game is written by the next scheduled flush.
+     */
+    public void markDirty(LiveGame liveGame, int... changed) {
+        UUID gameId = liveGame.getGame().getId();
+        liveGame.markDirty(changed);
+        dirtyGames.add(gameId);
+        if (cache.asMap().get(gameId) != liveGame) {
+            // Evicted while clean during the move; park it so neither the flush nor the next load misses it
+            evictedDirtyGames.putIfAbsent(gameId, liveGame);
+        }
+    }
+
+    /**
+     * Sets what runs once a won or lost game has been written, after its transaction committed,
+     * whether by {@link #flush} or by a later retry of the scheduled flush.
+     */
+    public void onFinishedWritten(Consumer<Game> listener) {
+        this.finishedListener = listener;
+    }
+
+    /**
+     * Writes the game immediately, e.g. when it reaches WON or LOST. If the write fails for another
+     * reason, the game stays dirty and the scheduled flush retries it.
+     * @throws OptimisticLockingFailureException if the row was changed outside this cache; the
+     * cached copy and its unwritten moves are dropped
+     */
+    public void flush(LiveGame liveGame) {
+        UUID gameId = liveGame.getGame().getId();
+        dirtyGames.remove(gameId);
+        if (!writeAll(List.of(liveGame)).isEmpty()) {
+            conflictedGames.remove(gameId);
+            throw new OptimisticLockingFailureException("Game " + gameId + " was modified concurrently; its latest moves were not saved.");
+        }
+    }
+
+    /**
+     * Writes dirty games in batches, one transaction per batch.
+     */
+    @Scheduled(fixedDelayString = "${minesweeper.cache.flush-interval:PT1S}")
+    public synchronized void flushDirty() {
+        List<LiveGame> batch = new ArrayList<>(flushBatchSize);
+        for (Iterator<UUID> it = dirtyGames.iterator(); it.hasNext(); ) {
+            UUID gameId = it.next();
+            it.remove();
+            LiveGame liveGame = getIfCached(gameId);
+            if (liveGame != null) {
+                batch.add(liveGame);
+            }
+            if (batch.size() == flushBatchSize) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        writeBatch(batch);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flushDirty();
+    }
+
+    /**
+     * Forgets that the background flush dropped moves of the game because its row was changed
+     * elsewhere.
+     * @return whether it had, so the player can be told that those moves were not saved
+     */
+    public boolean clearConflict(UUID gameId) {
+        return conflictedGames.remove(gameId);
+    }
+
+    /**
+     * Publishes the Caffeine statistics as {@code cache.*{cache="games"}}, the write-behind backlog
+     * and {@code minesweeper.cache.conflicts}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "games");
+        Gauge.builder("minesweeper.cache.dirty", dirtyGames, Set::size)
+                .description("Cached games waiting for the write-behind flush")
+                .register(registry);
+        Gauge.builder("minesweeper.cache.parked", evictedDirtyGames, Map::size)
+                .description("Evicted games waiting for the write-behind flush")
+                .register(registry);
+        conflictCounter = Counter.builder("minesweeper.cache.conflicts")
+                .description("Cached games dropped because their row was changed elsewhere, losing their unwritten moves")
+                .register(registry);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public int dirtyCount() {
+        return dirtyGames.size();
+    }
+
+    public int evictedDirtyCount() {
+        return evictedDirtyGames.size();
+    }
+
+    private void writeBatch(List<LiveGame> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writeAll(batch);
+            log.debug("LOG: Flushed {} dirty games", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} dirty games, retrying on the next flush", batch.size(), e);
+        }
+    }
+
+    /**
+     * Writes the games in one transaction. Their locks are held until it ends, so if it rolls back
+     * every game gets back exactly what was drained from it and is queued for the next scheduled
+     * flush, and parked games stay parked. The versions of the written games are bumped only once
+     * it has committed.
+     * @return the games whose rows were changed outside this cache, dropped with their unwritten moves
+     */
+    private List<LiveGame> writeAll(List<LiveGame> games) {
+        List<Drained> drained = new ArrayList<>(games.size());
+        List<LiveGame> conflicts = new ArrayList<>();
+        games.forEach(LiveGame::lock);
+        try {
+            transactionOperations.executeWithoutResult(status -> games.forEach(liveGame -> write(liveGame, drained, conflicts)));
+            for (Drained written : drained) {
+                Game game = written.liveGame().getGame();
+                game.setVersion(game.getVersion() + 1);
+                // A finished game takes no more moves, so this is its only successful write
+                if (game.getState() != GameState.IN_PROGRESS) {
+                    finishedListener.accept(game);
+                }
+            }
+            for (LiveGame liveGame : games) {
+                if (!liveGame.isDirty()) {
+                    evictedDirtyGames.remove(liveGame.getGame().getId(), liveGame);
+                }
+            }
+            if (!conflicts.isEmpty() && conflictCounter != null) {
+                conflictCounter.increment(conflicts.size());
+            }
+            return conflicts;
+        } catch (RuntimeException e) {
+            drained.forEach(Drained::restore);
+            for (LiveGame liveGame : games) {
+                if (liveGame.isDirty()) {
+                    dirtyGames.add(liveGame.getGame().getId());
+                }
+            }
+            throw e;
+        } finally {
+            games.forEach(LiveGame::unlock);
+        }
+    }
+
+    private void write(LiveGame liveGame, List<Drained> drained, List<LiveGame> conflicts) {
+        if (!liveGame.isDirty() || liveGame.getBoard() == null) {
+            return;
+        }
+        Game game = liveGame.getGame();
+        Drained taken = new Drained(liveGame, liveGame.drainChanges(), liveGame.drainMoves());
+        drained.add(taken);
+        try {
+            boardStore.save(game, liveGame.getBoard(), taken.changed());
+            gameHistory.append(game, liveGame.getBoard(), taken.moves());
+        } catch (OptimisticLockingFailureException e) {
+            drained.remove(taken);
+            conflicts.add(liveGame);
+            conflictedGames.add(game.getId());
+            log.error("Game {} was modified outside this cache, dropping the cached copy and {} unwritten moves",
+                    game.getId(), taken.moves().count(), e);
+            cache.asMap().remove(game.getId(), liveGame);
+            evictedDirtyGames.remove(game.getId(), liveGame);
+        }
+    }
+
+    /**
+     * What a write took from a live game, handed back if its transaction rolls back.
+     */
+    private record Drained(LiveGame liveGame, int[] changed, MoveLog moves) {
+        void restore() {
+            liveGame.markDirty(changed);
+            liveGame.restoreMoves(moves);
+        }
+    }
+
+    private void onEviction(UUID gameId, LiveGame liveGame, RemovalCause cause) {
+        // Runs inside the cache's compute for this key: no I/O and no GameLocks here
+        if (liveGame != null && liveGame.isDirty()) {
+            log.debug("LOG: Parking dirty game {} evicted from the cache ({})", gameId, cause);
+            evictedDirtyGames.put(gameId, liveGame);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.minesweeper.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One lock per game id, created on demand and dropped when no thread holds or waits for it.
+ * Moves on the same game run one at a time; moves on different games never share a lock.
+ */
+@Component
+public class GameLocks {
+    private final ConcurrentHashMap<UUID, Entry> locks = new ConcurrentHashMap<>();
+
+    public <T> T withLock(UUID gameId, Supplier<T> action) {
+        Entry entry = locks.compute(gameId, (id, existing) -> {
+            Entry e = existing != null ? existing : new Entry();
+            e.users++;
+            return e;
+        });
+        entry.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            entry.lock.unlock();
+            locks.computeIfPresent(gameId, (id, e) -> --e.users == 0 ? null : e);
+        }
+    }
+
+    /**
+     * Number of games that currently have a lock entry.
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Only read and written inside ConcurrentHashMap.compute for this key
+        private int users;
+    }
+}
@@ -0,0 +1,106 @@
+package com.minesweeper.cache;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.history.MoveLog;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.MoveType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-progress game held in the {@link GameCache}: the detached entity, its board, and the
+ * squares changed and moves played since the last flush.
+ * <p>
+ * The game and board are guarded by {@link #lock()}, which is held across database writes. It is
+ * a {@link ReentrantLock} rather than a monitor so that a virtual thread blocked on JDBC while
+ * holding it does not pin its carrier thread. The dirty bookkeeping has its own short monitor,
+ * so the cache's eviction listener can check it without waiting for a write.
+ */
+@Getter
+public class LiveGame {
+    private final Game game;
+
+    /**
+     * Null while a lazily created game waits for its first move.
+     */
+    @Setter
+    private Board board;
+
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final BitSet changedSquares = new BitSet();
+    private boolean dirty;
+
+    @Getter(AccessLevel.NONE)
+    private MoveLog pendingMoves = new MoveLog();
+
+    public LiveGame(Game game, Board board) {
+        this.game = game;
+        this.board = board;
+    }
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * Records changed squares without scheduling a flush; callers that hold a cached game use
+     * {@link GameCache#markDirty} instead. Loaders use this to mark state they changed while loading.
+     */
+    public synchronized void markDirty(int... changed) {
+        for (int index : changed) {
+            changedSquares.set(index);
+        }
+        dirty = true;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Clears the dirty state.
+     * @return the squares changed since the previous call
+     */
+    synchronized int[] drainChanges() {
+        int[] changed = changedSquares.stream().toArray();
+        changedSquares.clear();
+        dirty = false;
+        return changed;
+    }
+
+    /**
+     * Buffers a move that changed the board for the game's move log and counts it. Called while
+     * holding {@link #lock()}.
+     */
+    public void logMove(MoveType type, int index) {
+        pendingMoves.add(type, index);
+        game.setMoveCount(game.getMoveCount() + 1);
+    }
+
+    /**
+     * Hands over the moves buffered since the previous call. Called while holding {@link #lock()}.
+     */
+    MoveLog drainMoves() {
+        MoveLog moves = pendingMoves;
+        pendingMoves = new MoveLog();
+        return moves;
+    }
+
+    /**
+     * Puts back moves whose write failed. Called while holding {@link #lock()}, so no move was
+     * buffered in the meantime.
+     */
+    void restoreMoves(MoveLog moves) {
+        pendingMoves = moves;
+    }
+}
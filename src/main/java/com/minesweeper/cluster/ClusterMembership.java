@@ -0,0 +1,83 @@
+package com.minesweeper.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The nodes sharing the games and which of them owns each in-progress game.
+ * <p>
+ * The owner of a game is the only node that holds it in its {@link com.minesweeper.cache.GameCache};
+ * the other nodes forward its moves there. Members are configured with
+ * {@code minesweeper.cluster.members} and changed at runtime through {@link GameHandoff}. Without
+ * members every game is local, which is the single-node setup.
+ */
+@Component
+public class ClusterMembership {
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private final int virtualNodes;
+    private volatile String self;
+    private volatile HashRing ring;
+
+    /**
+     * @param self the base URL other nodes reach this node at; {@code http://localhost:<port>} if blank
+     * @param members the base URLs of all nodes, including this one
+     */
+    public ClusterMembership(@Value("${minesweeper.cluster.self:}") String self,
+                             @Value("${minesweeper.cluster.members:}") List<String> members,
+                             @Value("${minesweeper.cluster.virtual-nodes:128}") int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        this.self = self.isBlank() ? null : HashRing.normalize(self);
+        this.ring = new HashRing(members.stream().filter(member -> !member.isBlank()).toList(), virtualNodes);
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if (self == null && event.getApplicationContext().getServerNamespace() == null) {
+            self = "http://localhost:" + event.getWebServer().getPort();
+            log.info("LOG: Cluster node address is {}", self);
+        }
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public HashRing ring() {
+        return ring;
+    }
+
+    /**
+     * Replaces the members.
+     * @return the ring before the change
+     */
+    public synchronized HashRing update(List<String> members) {
+        HashRing previous = ring;
+        ring = new HashRing(members, virtualNodes);
+        log.info("LOG: Cluster members changed from {} to {}", previous.members(), ring.members());
+        return previous;
+    }
+
+    public boolean isLocal(UUID gameId) {
+        return isLocal(ring, gameId);
+    }
+
+    boolean isLocal(HashRing ring, UUID gameId) {
+        return ring.isEmpty() || ring.owner(gameId).equals(self);
+    }
+
+    /**
+     * @return the base URL of the node owning the game, or null if it is this node
+     */
+    public String remoteOwner(UUID gameId) {
+        HashRing current = ring;
+        return isLocal(current, gameId) ? null : current.owner(gameId);
+    }
+}
@@ -0,0 +1,91 @@
+package com.minesweeper.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * HTTP calls between cluster nodes. Every call carries {@link #FORWARDED_HEADER}, so a request is
+ * never forwarded twice; a forwarded move is refused rather than played by a node that does not
+ * own the game.
+ */
+@Component
+public class GameForwarder {
+    private static final Logger log = LoggerFactory.getLogger(GameForwarder.class);
+
+    public static final String FORWARDED_HEADER = "X-Minesweeper-Forwarded-By";
+
+    private final RestClient restClient;
+    private final ClusterMembership membership;
+
+    public GameForwarder(RestClient.Builder restClientBuilder, ClusterMembership membership) {
+        this.restClient = restClientBuilder.build();
+        this.membership = membership;
+    }
+
+    /**
+     * Posts a request to the node that owns the game and relays its response, errors included.
+     * @return the owner's response, or 503 if the owner cannot be reached
+     */
+    public <T> ResponseEntity<T> forward(String owner, String path, Object body, Class<T> responseType) {
+        log.debug("LOG: Forwarding {} to {}", path, owner);
+        try {
+            return restClient.post()
+                    .uri(owner + path)
+                    .header(FORWARDED_HEADER, String.valueOf(membership.self()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body)
+                    .retrieve()
+                    .onStatus(status -> true, (request, response) -> {
+                    })
+                    .toEntity(responseType);
+        } catch (RestClientException e) {
+            log.error("Cannot forward {} to {}: {}", path, owner, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Sends the new members to another node.
+     */
+    public void announceMembers(String node, List<String> members) {
+        try {
+            restClient.put()
+                    .uri(node + "/api/cluster/members")
+                    .header(FORWARDED_HEADER, String.valueOf(membership.self()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(members)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.error("Cannot announce the cluster members to {}: {}", node, e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the new owner of handed-off games to load them, so their next move is served from memory.
+     */
+    public void warm(String owner, Collection<UUID> gameIds) {
+        try {
+            restClient.post()
+                    .uri(owner + "/api/cluster/games/warm")
+                    .header(FORWARDED_HEADER, String.valueOf(membership.self()))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(gameIds)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            // The owner loads the games from their snapshots on first use instead
+            log.error("Cannot hand {} games off to {}: {}", gameIds.size(), owner, e.getMessage());
+        }
+    }
+}
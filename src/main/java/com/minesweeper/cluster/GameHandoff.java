@@ -0,0 +1,70 @@
+package com.minesweeper.cluster;
+
+import com.minesweeper.service.GameService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves games between nodes when the cluster members change.
+ * <p>
+ * A node that loses a game writes its board snapshot, drops it from memory and asks the new owner
+ * to load it; a node that gains a game drops any copy it still holds, since the previous owner has
+ * the newer state. There is no coordinator: the node that receives the new members announces them
+ * to every old and new member, and each node hands off its own games.
+ */
+@Component
+public class GameHandoff {
+    private static final Logger log = LoggerFactory.getLogger(GameHandoff.class);
+
+    private final ClusterMembership membership;
+    private final GameForwarder forwarder;
+    private final GameService gameService;
+
+    public GameHandoff(ClusterMembership membership, GameForwarder forwarder, GameService gameService) {
+        this.membership = membership;
+        this.forwarder = forwarder;
+        this.gameService = gameService;
+    }
+
+    /**
+     * Applies new members and hands off the games whose owner changed.
+     * @param members the base URLs of all nodes
+     * @param announce whether to send the members to the other nodes; false if they came from one
+     */
+    public void changeMembers(List<String> members, boolean announce) {
+        HashRing previous = membership.update(members);
+        HashRing current = membership.ring();
+        if (announce) {
+            // Announce first, so the nodes this one warms already know they own the games
+            Set<String> nodes = new TreeSet<>(previous.members());
+            nodes.addAll(current.members());
+            nodes.remove(membership.self());
+            nodes.forEach(node -> forwarder.announceMembers(node, current.members()));
+        }
+
+        List<UUID> released = gameService.releaseGames(gameId ->
+                !membership.isLocal(previous, gameId) || !membership.isLocal(current, gameId));
+        Map<String, List<UUID>> handedOff = released.stream()
+                .filter(gameId -> !membership.isLocal(current, gameId))
+                .collect(Collectors.groupingBy(current::owner));
+        handedOff.forEach(forwarder::warm);
+        log.info("LOG: Released {} games, handed {} off to {} nodes", released.size(),
+                handedOff.values().stream().mapToInt(List::size).sum(), handedOff.size());
+    }
+
+    /**
+     * Loads games handed off by another node.
+     */
+    public void warm(Collection<UUID> gameIds) {
+        gameService.preloadGames(gameIds);
+    }
+}
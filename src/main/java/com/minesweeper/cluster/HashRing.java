@@ -0,0 +1,82 @@
+package com.minesweeper.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Consistent hash ring mapping game ids to the nodes that own them.
+ * <p>
+ * Every node is placed on the ring at {@code virtualNodes} points and a game belongs to the first
+ * point at or after its hash, so adding or removing a node only moves the games between it and its
+ * neighbours. Immutable; a membership change builds a new ring.
+ */
+public final class HashRing {
+    private final List<String> members;
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    /**
+     * @param members the base URLs of the nodes
+     * @param virtualNodes points per node; more points spread the games more evenly
+     */
+    public HashRing(Collection<String> members, int virtualNodes) {
+        this.members = members.stream().map(HashRing::normalize).distinct().sorted().toList();
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public List<String> members() {
+        return members;
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * @return the owner of the game, or null if the ring has no members
+     */
+    public String owner(UUID gameId) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(mix(gameId.getMostSignificantBits() ^ mix(gameId.getLeastSignificantBits())));
+        return (point != null ? point : points.firstEntry()).getValue();
+    }
+
+    static String normalize(String member) {
+        String trimmed = member.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    /**
+     * 64-bit FNV-1a, finished with {@link #mix(long)} to spread similar names.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The MurmurHash3 finaliser.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
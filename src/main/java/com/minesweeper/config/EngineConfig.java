@@ -0,0 +1,57 @@
+package com.minesweeper.config;
+
+import com.minesweeper.engine.BoardPool;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.GameDifficulty;
+import com.minesweeper.solver.NoGuessGenerator;
+import com.minesweeper.solver.Solver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class EngineConfig {
+
+    /**
+     * Seeded games are regenerated with this placer, so its algorithm must not change.
+     */
+    @Bean
+    public MinePlacer minePlacer() {
+        return new MinePlacer(MinePlacer.DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * Only games created with a generated board claim from the pool; lazily generated games place
+     * their mines around the first move and cannot use a pre-generated board.
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public BoardPool boardPool(MinePlacer minePlacer,
+                               @Value("${minesweeper.board.lazy-generation:true}") boolean lazyGeneration,
+                               @Value("${minesweeper.board.pool.size:256}") int size,
+                               @Value("${minesweeper.board.pool.threads:1}") int threads) {
+        return new BoardPool(minePlacer, lazyGeneration ? 0 : size, threads);
+    }
+
+    /**
+     * The node budget bounds the time of one analysis; components that exceed it are estimated.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public Solver solver(@Value("${minesweeper.solver.parallelism:0}") int parallelism,
+                         @Value("${minesweeper.solver.node-budget:1000000}") long nodeBudget) {
+        return new Solver(parallelism, nodeBudget);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public NoGuessGenerator noGuessGenerator(MinePlacer minePlacer, Solver solver,
+                                             @Value("${minesweeper.board.no-guess.threads:0}") int threads,
+                                             @Value("${minesweeper.board.no-guess.max-searches:2}") int maxSearches,
+                                             @Value("${minesweeper.board.no-guess.budget.easy:PT0.2S}") Duration easy,
+                                             @Value("${minesweeper.board.no-guess.budget.medium:PT0.5S}") Duration medium,
+                                             @Value("${minesweeper.board.no-guess.budget.olympic:PT2S}") Duration olympic) {
+        return new NoGuessGenerator(minePlacer, solver, threads, maxSearches,
+                Map.of(GameDifficulty.EASY, easy, GameDifficulty.MEDIUM, medium, GameDifficulty.OLYMPIC, olympic));
+    }
+}
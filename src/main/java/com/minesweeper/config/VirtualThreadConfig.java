@@ -0,0 +1,56 @@
+package com.minesweeper.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in virtual thread mode, enabled with {@code spring.threads.virtual.enabled=true} on Java 21+.
+ * Spring Boot then serves requests, scheduled flushes and async work on virtual threads; this
+ * configuration bounds how many of them may hold a database connection at once.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("minesweeper.virtual-threads.max-connections", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration timeout = environment.getProperty("minesweeper.virtual-threads.connection-timeout",
+                        Duration.class, Duration.ofSeconds(5));
+                log.info("LOG: Virtual threads enabled, bounding data source {} to {} connections", beanName, permits);
+                return new BoundedDataSource(dataSource, permits, timeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BoundedDataSource bounded) {
+                Gauge.builder("minesweeper.datasource.permits.available", bounded, BoundedDataSource::availablePermits)
+                        .description("Database connection permits left for virtual threads")
+                        .register(registry);
+            }
+        };
+    }
+}
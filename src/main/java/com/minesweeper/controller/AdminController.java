@@ -0,0 +1,93 @@
+package com.minesweeper.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.LiveGame;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardGrid;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.model.Game;
+import com.minesweeper.service.GameService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
+    private final GameCache gameCache;
+    private final GameService gameService;
+    private final GameHistory gameHistory;
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        CacheStats stats = gameCache.stats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("size", gameCache.size());
+        body.put("dirty", gameCache.dirtyCount());
+        body.put("hits", stats.hitCount());
+        body.put("misses", stats.missCount());
+        body.put("hitRate", stats.hitRate());
+        body.put("loadFailures", stats.loadFailureCount());
+        body.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        body.put("evictions", stats.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Replays a game from its move log, for audits of disputed games. The board is returned with
+     * every mine shown.
+     * @param moves the number of moves to replay; all logged moves if omitted
+     */
+    @GetMapping("/games/{gameId}/replay")
+    public ResponseEntity<GameResponse> replay(@PathVariable UUID gameId, @RequestParam(required = false) Integer moves) {
+        LiveGame liveGame = gameCache.getIfCached(gameId);
+        if (liveGame != null) {
+            // Write the moves still buffered in the cache, so the log is complete
+            gameCache.flush(liveGame);
+        }
+        Game game = gameService.findGameById(gameId);
+        if (game == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            GameHistory.Replay replay = gameHistory.replay(game, moves != null ? moves : game.getMoveCount());
+            Board board = replay.board();
+            return ResponseEntity.ok(new GameResponse(game.getId(), game.getUser() != null ? game.getUser().getId() : null,
+                    game.getWidth(), game.getHeight(), game.getMinesCount(), replay.state(),
+                    board != null ? board.getRevealedSafeCount() : 0, game.getTotalSafeCount(),
+                    board != null ? BoardGrid.encode(board, true) : BoardGrid.hidden(game.getWidth() * game.getHeight())));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.error("Cannot replay game {}: {}", gameId, e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Tells whether a game can be won from its current state without guessing.
+     * @param row the row of the first square to open, if nothing is open yet
+     * @param col the column of the first square to open
+     */
+    @GetMapping("/games/{gameId}/solvable")
+    public ResponseEntity<Map<String, Object>> solvable(@PathVariable UUID gameId, @RequestParam int row, @RequestParam int col) {
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("gameId", gameId);
+            body.put("solvable", gameService.isSolvableWithoutGuessing(gameId, row, col));
+            return ResponseEntity.ok(body);
+        } catch (IllegalStateException e) {
+            log.error("Cannot check game {}: {}", gameId, e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.minesweeper.controller;
+
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.cluster.GameForwarder;
+import com.minesweeper.cluster.GameHandoff;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final GameHandoff gameHandoff;
+
+    @GetMapping("/members")
+    public ResponseEntity<Map<String, Object>> members() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("self", membership.self());
+        body.put("members", membership.ring().members());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Replaces the cluster members on every old and new member and rebalances the games.
+     * @param members the base URLs of all nodes
+     */
+    @PutMapping("/members")
+    public ResponseEntity<Map<String, Object>> changeMembers(@RequestBody List<String> members,
+                                                             @RequestHeader(value = GameForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        gameHandoff.changeMembers(members, forwardedBy == null);
+        return members();
+    }
+
+    /**
+     * Loads games another node handed off to this one.
+     */
+    @PostMapping("/games/warm")
+    public ResponseEntity<Void> warm(@RequestBody List<UUID> gameIds) {
+        gameHandoff.warm(gameIds);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,17 +1,37 @@
 package com.minesweeper.controller;
 
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.cluster.GameForwarder;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.dto.HintResponse;
+import com.minesweeper.dto.MoveRequest;
+import com.minesweeper.dto.TurnBatchRequest;
+import com.minesweeper.dto.TurnResponse;
 import com.minesweeper.dto.TurnRequest;
+import com.minesweeper.event.EventSink;
+import com.minesweeper.event.GameEvent;
 import com.minesweeper.model.Game;
 import com.minesweeper.model.GameDifficulty;
+import com.minesweeper.model.MoveType;
 import com.minesweeper.model.User;
 import com.minesweeper.service.GameService;
 import com.minesweeper.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,19 +39,26 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GameController {
     private static final Logger log = LoggerFactory.getLogger(GameController.class);
+    private static final int MAX_MOVES_PER_BATCH = 10_000;
 
     private final GameService gameService;
     private final UserService userService;
+    private final ClusterMembership cluster;
+    private final GameForwarder forwarder;
 
+    @Value("${minesweeper.events.timeout:PT30M}")
+    private Duration eventsTimeout;
 
     @PostMapping("/new/standard")
-    public ResponseEntity<Game> startStandardGame(@RequestParam UUID userId, @RequestParam String difficulty) {
+    public ResponseEntity<GameResponse> startStandardGame(@RequestParam UUID userId, @RequestParam String difficulty,
+                                                          @RequestParam(defaultValue = "false") boolean noGuess) {
         try {
             User user = userService.getUserById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
             GameDifficulty gameDifficulty = GameDifficulty.valueOf(difficulty.toUpperCase());
-            Game game = gameService.createStandardGame(user, gameDifficulty);
-            return ResponseEntity.ok(game);
+            Game game = noGuess ? gameService.createNoGuessGame(user, gameDifficulty)
+                    : gameService.createStandardGame(user, gameDifficulty);
+            return ResponseEntity.ok(GameResponse.of(game));
         } catch (IllegalArgumentException e) {
             log.error("Invalid difficulty level: {}", difficulty);
             return ResponseEntity.badRequest().body(null);
@@ -39,13 +66,13 @@ public class GameController {
     }
 
     @PostMapping("/new/custom")
-    public ResponseEntity<Game> startCustomGame(@RequestParam UUID userId, @RequestParam int width,
+    public ResponseEntity<GameResponse> startCustomGame(@RequestParam UUID userId, @RequestParam int width,
                                                 @RequestParam int height, @RequestParam int mines) {
         try {
             User user = userService.getUserById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
             Game game = gameService.createCustomGame(user, width, height, mines);
-            return ResponseEntity.ok(game);
+            return ResponseEntity.ok(GameResponse.of(game));
         } catch (IllegalArgumentException e) {
             log.error("Invalid parameters for custom game");
             return ResponseEntity.badRequest().body(null);
@@ -53,18 +80,91 @@ public class GameController {
     }
 
     @GetMapping("/{gameId}")
-    public ResponseEntity<Game> getGame(@PathVariable UUID gameId) {
-        Game game = gameService.getGame(gameId);
+    public ResponseEntity<GameResponse> getGame(@PathVariable UUID gameId,
+                                                @RequestParam(defaultValue = "true") boolean board,
+                                                HttpServletRequest request) {
+        ResponseEntity<GameResponse> redirect = redirectToOwner(gameId, request);
+        if (redirect != null) {
+            return redirect;
+        }
+        GameResponse game = gameService.getGameView(gameId, board);
         if (game == null) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok(game);
     }
 
+    /**
+     * Server-sent events of a game: a {@code SNAPSHOT} with the whole board, then one {@code MOVE}
+     * per applied turn with its delta. The stream completes after the game ends, or when the client
+     * falls too far behind, in which case it reconnects and gets a new snapshot.
+     */
+    @GetMapping(path = "/{gameId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGame(@PathVariable UUID gameId, HttpServletRequest request) {
+        // Events are published in-process by the node that applies the moves
+        ResponseEntity<SseEmitter> redirect = redirectToOwner(gameId, request);
+        if (redirect != null) {
+            return redirect;
+        }
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        Runnable subscription = gameService.subscribe(gameId, new EventSink() {
+            @Override
+            public void send(GameEvent event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.getSequence()))
+                        .name(event.getType().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void close(Throwable reason) {
+                if (reason != null) {
+                    log.debug("LOG: Closing event stream of game {}: {}", gameId, reason.getMessage());
+                }
+                emitter.complete();
+            }
+        });
+        if (subscription == null) {
+            return ResponseEntity.notFound().build();
+        }
+        emitter.onCompletion(subscription);
+        emitter.onTimeout(subscription);
+        emitter.onError(e -> subscription.run());
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Suggests the next square to open: a square proven safe, or else the least likely to hold a
+     * mine. Only what the player can see is used.
+     */
+    @GetMapping("/{gameId}/hint")
+    public ResponseEntity<HintResponse> getHint(@PathVariable UUID gameId, @RequestParam UUID userId,
+                                                HttpServletRequest request) {
+        ResponseEntity<HintResponse> redirect = redirectToOwner(gameId, request);
+        if (redirect != null) {
+            return redirect;
+        }
+        try {
+            User user = userService.getUserById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            return ResponseEntity.ok(gameService.getHint(user, gameId));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.error("Error computing hint for game {}: {}", gameId, e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        } catch (OptimisticLockingFailureException e) {
+            log.error("Conflicting write while computing hint for game {}: {}", gameId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        }
+    }
+
+    /**
+     * Applies one move. A move of a game another node owns is forwarded there.
+     */
     @PostMapping("/turn")
-    public ResponseEntity<Game> makeMove(@RequestBody TurnRequest request) {
-        log.info("Received request: userId={}, gameId={}, row={}, col={}",
-                request.getUserId(), request.getGameId(), request.getRow(), request.getCol());
+    public ResponseEntity<TurnResponse> makeMove(@RequestBody TurnRequest request,
+                                                 @RequestHeader(value = GameForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        log.debug("Received request: userId={}, gameId={}, type={}, row={}, col={}",
+                request.getUserId(), request.getGameId(), request.getType(), request.getRow(), request.getCol());
 
         if (request.getGameId() == null || request.getGameId().isEmpty() ||
                 request.getUserId() == null || request.getUserId().isEmpty()) {
@@ -75,12 +175,19 @@ public class GameController {
         try {
             UUID gameId = UUID.fromString(request.getGameId().trim());
             UUID userId = UUID.fromString(request.getUserId().trim());
+            String owner = cluster.remoteOwner(gameId);
+            if (owner != null) {
+                return forwardedBy == null
+                        ? forwarder.forward(owner, "/api/turn", request, TurnResponse.class)
+                        : misdirected(gameId, forwardedBy);
+            }
 
             User user = userService.getUserById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-            Game game = gameService.makeMove(user, gameId, request.getRow(), request.getCol());
-            return ResponseEntity.ok(game);
+            MoveType type = request.getType() != null ? request.getType() : MoveType.REVEAL;
+            MoveRequest move = new MoveRequest(type, request.getRow(), request.getCol());
+            return ResponseEntity.ok(gameService.makeMoves(user, gameId, List.of(move)));
         } catch (IllegalArgumentException e) {
             log.error("Invalid UUID format for gameId or userId: gameId={}, userId={}",
                     request.getGameId(), request.getUserId(), e);
@@ -88,6 +195,76 @@ public class GameController {
         } catch (IllegalStateException e) {
             log.error("Error processing move: {}", e.getMessage());
             return ResponseEntity.badRequest().body(null);
+        } catch (OptimisticLockingFailureException e) {
+            log.error("Conflicting write while processing move: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        }
+    }
+
+    @PostMapping("/turns")
+    public ResponseEntity<TurnResponse> makeMoves(@RequestBody TurnBatchRequest request,
+                                                  @RequestHeader(value = GameForwarder.FORWARDED_HEADER, required = false) String forwardedBy) {
+        if (request.getGameId() == null || request.getGameId().isEmpty() ||
+                request.getUserId() == null || request.getUserId().isEmpty()) {
+            log.error("Received batch with null or empty gameId or userId");
+            return ResponseEntity.badRequest().body(null);
+        }
+        if (request.getMoves() == null || request.getMoves().isEmpty() || request.getMoves().size() > MAX_MOVES_PER_BATCH) {
+            log.error("Received batch with no moves or more than {} moves", MAX_MOVES_PER_BATCH);
+            return ResponseEntity.badRequest().body(null);
+        }
+        log.debug("Received batch: userId={}, gameId={}, moves={}",
+                request.getUserId(), request.getGameId(), request.getMoves().size());
+
+        try {
+            UUID gameId = UUID.fromString(request.getGameId().trim());
+            UUID userId = UUID.fromString(request.getUserId().trim());
+            String owner = cluster.remoteOwner(gameId);
+            if (owner != null) {
+                return forwardedBy == null
+                        ? forwarder.forward(owner, "/api/turns", request, TurnResponse.class)
+                        : misdirected(gameId, forwardedBy);
+            }
+
+            User user = userService.getUserById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+            return ResponseEntity.ok(gameService.makeMoves(user, gameId, request.getMoves()));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid UUID format for gameId or userId: gameId={}, userId={}",
+                    request.getGameId(), request.getUserId(), e);
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException e) {
+            log.error("Error processing batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        } catch (OptimisticLockingFailureException e) {
+            log.error("Conflicting write while processing batch: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+        }
+    }
+
+    /**
+     * Refuses a forwarded move for a game this node does not own. The header is set by any client,
+     * so it never makes a node play a game it does not hold; while a membership change reaches
+     * both nodes, the player retries.
+     */
+    private <T> ResponseEntity<T> misdirected(UUID gameId, String forwardedBy) {
+        log.error("Refusing move for game {} forwarded by {}: this node does not own it", gameId, forwardedBy);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    /**
+     * Sends reads of a game another node owns to that node, which holds its live state.
+     * @return the redirect, or null if this node owns the game
+     */
+    private <T> ResponseEntity<T> redirectToOwner(UUID gameId, HttpServletRequest request) {
+        String owner = cluster.remoteOwner(gameId);
+        if (owner == null) {
+            return null;
         }
+        String query = request.getQueryString();
+        return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                .location(URI.create(owner + request.getRequestURI() + (query != null ? "?" + query : "")))
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.minesweeper.controller;
+
+import com.minesweeper.dto.LeaderboardEntry;
+import com.minesweeper.stats.Leaderboard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final Leaderboard leaderboard;
+
+    /**
+     * Users ranked by games won, served from memory. Counters lag finished games by up to one
+     * {@code minesweeper.stats.flush-interval}.
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntry>> top(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboard.top(limit));
+    }
+}
@@ -0,0 +1,63 @@
+package com.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardGrid;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Squares changed by a turn, as linear indices ({@code row * width + col}) in ascending order.
+ * {@code counts[i]} is the neighbour count of {@code revealed[i]}, or {@link BoardGrid#MINE} for an
+ * opened mine. {@code mines} lists every mine once the game is over and is omitted before.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BoardDelta {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[] revealed;
+    private final int[] counts;
+    private final int[] flagged;
+    private final int[] unflagged;
+    private final int[] mines;
+
+    public static BoardDelta of(Board board, BitSet changed, boolean gameOver) {
+        if (board == null) {
+            return new BoardDelta(EMPTY, EMPTY, EMPTY, EMPTY, null);
+        }
+        int[] revealed = new int[changed.cardinality()];
+        int[] counts = new int[revealed.length];
+        int[] flagged = new int[revealed.length];
+        int[] unflagged = new int[revealed.length];
+        int revealedCount = 0;
+        int flaggedCount = 0;
+        int unflaggedCount = 0;
+        for (int index = changed.nextSetBit(0); index >= 0; index = changed.nextSetBit(index + 1)) {
+            if (board.isRevealed(index)) {
+                revealed[revealedCount] = index;
+                counts[revealedCount++] = BoardGrid.square(board, index, false);
+            } else if (board.isFlagged(index)) {
+                flagged[flaggedCount++] = index;
+            } else {
+                unflagged[unflaggedCount++] = index;
+            }
+        }
+        int[] mines = null;
+        if (gameOver) {
+            mines = new int[board.getMineCount()];
+            int mineCount = 0;
+            for (int index = 0; index < board.size(); index++) {
+                if (board.isMine(index)) {
+                    mines[mineCount++] = index;
+                }
+            }
+        }
+        return new BoardDelta(Arrays.copyOf(revealed, revealedCount), Arrays.copyOf(counts, revealedCount),
+                Arrays.copyOf(flagged, flaggedCount), Arrays.copyOf(unflagged, unflaggedCount), mines);
+    }
+}
@@ -0,0 +1,39 @@
+package com.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.minesweeper.engine.BoardGrid;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Game summary returned by the API. {@code board}, when requested, is the {@link BoardGrid}
+ * encoding of the board and is serialised as base64.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameResponse {
+    private final UUID id;
+    private final UUID userId;
+    private final int width;
+    private final int height;
+    private final int minesCount;
+    private final GameState state;
+    private final Integer revealedSafeCount;
+    private final Integer totalSafeCount;
+    private final byte[] board;
+
+    public static GameResponse of(Game game) {
+        return of(game, null);
+    }
+
+    public static GameResponse of(Game game, byte[] board) {
+        return new GameResponse(game.getId(), game.getUser() != null ? game.getUser().getId() : null,
+                game.getWidth(), game.getHeight(), game.getMinesCount(), game.getState(),
+                game.getRevealedSafeCount(), game.getTotalSafeCount(), board);
+    }
+}
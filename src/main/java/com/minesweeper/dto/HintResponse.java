@@ -0,0 +1,20 @@
+package com.minesweeper.dto;
+
+import com.minesweeper.solver.Hint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * The square suggested as the player's next move.
+ */
+@Getter
+@AllArgsConstructor
+public class HintResponse {
+    private final UUID gameId;
+    private final int row;
+    private final int col;
+    private final Hint.Kind kind;
+    private final double mineProbability;
+}
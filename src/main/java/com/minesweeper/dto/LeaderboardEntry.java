@@ -0,0 +1,25 @@
+package com.minesweeper.dto;
+
+import com.minesweeper.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * A user's standing on the leaderboard, ranked by games won.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private final UUID userId;
+    private final String username;
+    private final int gamesPlayed;
+    private final int gamesWon;
+    private final int gamesLost;
+
+    public static LeaderboardEntry of(User user) {
+        return new LeaderboardEntry(user.getId(), user.getUsername(), user.getGamesPlayed(), user.getGamesWon(),
+                user.getGamesLost());
+    }
+}
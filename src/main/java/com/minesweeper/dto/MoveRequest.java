@@ -0,0 +1,17 @@
+package com.minesweeper.dto;
+
+import com.minesweeper.model.MoveType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveRequest {
+    private MoveType type = MoveType.REVEAL;
+    private int row;
+    private int col;
+}
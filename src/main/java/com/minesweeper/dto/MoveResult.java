@@ -0,0 +1,15 @@
+package com.minesweeper.dto;
+
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MoveResult {
+    private final MoveType type;
+    private final int row;
+    private final int col;
+    private final MoveOutcome outcome;
+}
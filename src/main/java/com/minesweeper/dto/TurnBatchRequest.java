@@ -0,0 +1,20 @@
+package com.minesweeper.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Ordered moves applied to one game in a single request.
+ */
+@Getter
+@Setter
+public class TurnBatchRequest {
+    @JsonProperty("userId")
+    private String userId;
+    @JsonProperty("gameId")
+    private String gameId;
+    private List<MoveRequest> moves;
+}
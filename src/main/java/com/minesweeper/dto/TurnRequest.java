@@ -1,6 +1,7 @@
 package com.minesweeper.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.minesweeper.model.MoveType;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,6 +12,7 @@ public class TurnRequest {
     private String userId;
     @JsonProperty("gameId")
     private String gameId;
+    private MoveType type = MoveType.REVEAL;
     private int row;
     private int col;
 }
\ No newline at end of file
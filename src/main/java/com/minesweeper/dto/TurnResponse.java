@@ -0,0 +1,23 @@
+package com.minesweeper.dto;
+
+import com.minesweeper.model.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of one or more moves: the game state, one result per requested move in request order,
+ * and the squares changed by the moves instead of the whole board.
+ */
+@Getter
+@AllArgsConstructor
+public class TurnResponse {
+    private final UUID gameId;
+    private final GameState state;
+    private final int revealedSafeCount;
+    private final int totalSafeCount;
+    private final List<MoveResult> results;
+    private final BoardDelta delta;
+}
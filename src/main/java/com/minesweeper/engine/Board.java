@@ -0,0 +1,334 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.CellState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * In-memory minesweeper board.
+ * <p>
+ * Every square is addressed by its linear index {@code row * width + col}. Mines, revealed and
+ * flagged squares are kept in bitsets and neighbour counts in a byte array, so a move touches
+ * only the squares it changes instead of hydrating one entity per square.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class Board {
+    private static final int[] DR = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DC = {-1, 0, 1, -1, 1, -1, 0, 1};
+    private static final int[] EMPTY = new int[0];
+
+    private final int width;
+    private final int height;
+    private final BitSet mines;
+    private final BitSet revealed;
+    private final BitSet flagged;
+    private final byte[] counts;
+
+    private int mineCount;
+    private int revealedSafeCount;
+
+    public Board(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Board dimensions must be positive: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        this.mines = new BitSet(size);
+        this.revealed = new BitSet(size);
+        this.flagged = new BitSet(size);
+        this.counts = new byte[size];
+    }
+
+    Board(int width, int height, BitSet mines, BitSet revealed, BitSet flagged) {
+        this(width, height);
+        this.mines.or(mines);
+        this.revealed.or(revealed);
+        this.flagged.or(flagged);
+        this.mineCount = this.mines.cardinality();
+        computeCounts();
+        BitSet revealedSafe = (BitSet) this.revealed.clone();
+        revealedSafe.andNot(this.mines);
+        this.revealedSafeCount = revealedSafe.cardinality();
+    }
+
+    /**
+     * Builds a board from persisted cells. Neighbour counts are derived from the mine layout.
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param cells the persisted cells of the game
+     * @return the board
+     */
+    public static Board fromCells(int width, int height, Collection<CellState> cells) {
+        BitSet mines = new BitSet(width * height);
+        BitSet revealed = new BitSet(width * height);
+        BitSet flagged = new BitSet(width * height);
+        for (CellState cell : cells) {
+            if (cell.row() < 0 || cell.row() >= height || cell.col() < 0 || cell.col() >= width) {
+                throw new IllegalStateException("Cell (" + cell.row() + ", " + cell.col() + ") is outside the board.");
+            }
+            int index = cell.row() * width + cell.col();
+            mines.set(index, cell.hasMine());
+            revealed.set(index, cell.revealed());
+            flagged.set(index, cell.flagged());
+        }
+        return new Board(width, height, mines, revealed, flagged);
+    }
+
+    /**
+     * Copies the board, including revealed and flagged squares.
+     * @return an independent copy
+     */
+    public Board copy() {
+        return new Board(width, height, mines, revealed, flagged);
+    }
+
+    /**
+     * Copies the mine layout alone, as the board was before the first move.
+     * @return an independent copy with nothing revealed or flagged
+     */
+    public Board layout() {
+        return new Board(width, height, mines, new BitSet(), new BitSet());
+    }
+
+    BitSet mines() {
+        return mines;
+    }
+
+    BitSet revealed() {
+        return revealed;
+    }
+
+    BitSet flagged() {
+        return flagged;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return width * height;
+    }
+
+    public int getMineCount() {
+        return mineCount;
+    }
+
+    public int getRevealedSafeCount() {
+        return revealedSafeCount;
+    }
+
+    public int getTotalSafeCount() {
+        return size() - mineCount;
+    }
+
+    public boolean contains(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+    public int index(int row, int col) {
+        return row * width + col;
+    }
+
+    public int row(int index) {
+        return index / width;
+    }
+
+    public int col(int index) {
+        return index % width;
+    }
+
+    public boolean isMine(int index) {
+        return mines.get(index);
+    }
+
+    public boolean isRevealed(int index) {
+        return revealed.get(index);
+    }
+
+    public boolean isFlagged(int index) {
+        return flagged.get(index);
+    }
+
+    /**
+     * Lists the squares around a square, in ascending index order.
+     * @param index the linear index of the square
+     * @param neighbours receives the neighbours; must hold at least 8 entries
+     * @return the number of neighbours written
+     */
+    public int neighbours(int index, int[] neighbours) {
+        int row = row(index);
+        int col = col(index);
+        int count = 0;
+        for (int i = 0; i < 8; i++) {
+            int r = row + DR[i];
+            int c = col + DC[i];
+            if (r >= 0 && r < height && c >= 0 && c < width) {
+                neighbours[count++] = r * width + c;
+            }
+        }
+        return count;
+    }
+
+    public int getCount(int index) {
+        return counts[index];
+    }
+
+    public void placeMine(int index) {
+        if (!mines.get(index)) {
+            mines.set(index);
+            mineCount++;
+        }
+    }
+
+    public void setFlagged(int index, boolean value) {
+        flagged.set(index, value);
+    }
+
+    /**
+     * Recomputes the neighbour count of every square from the mine layout.
+     * @see NeighbourCounter
+     */
+    public void computeCounts() {
+        NeighbourCounter.getInstance().count(mines, width, height, counts);
+    }
+
+    /**
+     * Reveals a single square.
+     * @param index the linear index of the square
+     * @return true if the square was hidden before the call
+     */
+    public boolean reveal(int index) {
+        if (revealed.get(index)) {
+            return false;
+        }
+        revealed.set(index);
+        if (!mines.get(index)) {
+            revealedSafeCount++;
+        }
+        return true;
+    }
+
+    /**
+     * Reveals the empty region around an already revealed square with no neighbouring mines.
+     * <p>
+     * The traversal runs over linear indices with an int ring queue; the revealed plane doubles as
+     * the visited set, so no per-square objects are created. The queue and result buffers are
+     * allocated per call, sized to the board's perimeter, so a cached board does not keep the
+     * buffers of its largest fill.
+     * @param start the linear index of the starting square
+     * @return the linear indices of the squares revealed by this call, in BFS order
+     */
+    public int[] floodFill(int start) {
+        if (counts[start] != 0) {
+            return EMPTY;
+        }
+        int[] queue = new int[initialBufferSize()];
+        int[] delta = new int[queue.length];
+        int mask = queue.length - 1;
+        int head = 0;
+        int tail = 0;
+        int revealedCount = 0;
+        queue[tail++ & mask] = start;
+
+        while (head != tail) {
+            int current = queue[head++ & mask];
+            int row = row(current);
+            int col = col(current);
+            for (int i = 0; i < 8; i++) {
+                int r = row + DR[i];
+                int c = col + DC[i];
+                if (r < 0 || r >= height || c < 0 || c >= width) {
+                    continue;
+                }
+                int neighbour = r * width + c;
+                if (mines.get(neighbour) || flagged.get(neighbour) || !reveal(neighbour)) {
+                    continue;
+                }
+                delta = append(delta, revealedCount++, neighbour);
+                if (counts[neighbour] == 0) {
+                    if (tail - head == queue.length) {
+                        queue = growQueue(queue, head, tail);
+                        mask = queue.length - 1;
+                        tail -= head;
+                        head = 0;
+                    }
+                    queue[tail++ & mask] = neighbour;
+                }
+            }
+        }
+        return Arrays.copyOf(delta, revealedCount);
+    }
+
+    /**
+     * Collects the squares a chord on a revealed number would open: its hidden, unflagged
+     * neighbours, provided the flagged neighbours match the number. Flags and hidden squares are
+     * gathered in the same pass over the neighbourhood.
+     * @param index the linear index of the revealed square
+     * @param targets receives the squares to open; must hold at least 8 entries
+     * @return the number of squares written to {@code targets}, 0 if the chord does not apply
+     */
+    public int chordTargets(int index, int[] targets) {
+        if (!revealed.get(index) || mines.get(index) || counts[index] == 0) {
+            return 0;
+        }
+        int row = row(index);
+        int col = col(index);
+        int flags = 0;
+        int hidden = 0;
+        for (int i = 0; i < 8; i++) {
+            int r = row + DR[i];
+            int c = col + DC[i];
+            if (r < 0 || r >= height || c < 0 || c >= width) {
+                continue;
+            }
+            int neighbour = r * width + c;
+            if (flagged.get(neighbour)) {
+                flags++;
+            } else if (!revealed.get(neighbour)) {
+                targets[hidden++] = neighbour;
+            }
+        }
+        return flags == counts[index] ? hidden : 0;
+    }
+
+    /**
+     * A power of two above the board's perimeter, which holds the frontier of most fills.
+     */
+    private int initialBufferSize() {
+        return Integer.highestOneBit(Math.max(16, 2 * (width + height)) - 1) << 1;
+    }
+
+    private static int[] growQueue(int[] queue, int head, int tail) {
+        int mask = queue.length - 1;
+        int[] grown = new int[queue.length << 1];
+        for (int i = head; i != tail; i++) {
+            grown[i - head] = queue[i & mask];
+        }
+        return grown;
+    }
+
+    private static int[] append(int[] buffer, int size, int value) {
+        if (size == buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(Integer.MAX_VALUE - 8, buffer.length << 1));
+        }
+        buffer[size] = value;
+        return buffer;
+    }
+
+    public boolean hasRevealedMine() {
+        return revealed.intersects(mines);
+    }
+
+    public boolean isWon() {
+        return revealedSafeCount == getTotalSafeCount();
+    }
+}
@@ -0,0 +1,119 @@
+package com.minesweeper.engine;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.function.Supplier;
+
+/**
+ * Binary snapshot format of a {@link Board}.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * byte   version            {@value #VERSION}; version 1 has no flags byte and always stores the mines
+ * byte   flags              {@link #MINES_OMITTED}
+ * int    width
+ * int    height
+ * byte[] mines              ceil(width * height / 8) bytes, bit i = square i; absent when MINES_OMITTED
+ * byte[] revealed           same length
+ * byte[] flagged            same length
+ * </pre>
+ * Neighbour counts are not stored; they are derived from the mines when decoding. Boards whose
+ * mines can be regenerated from a seed (see {@link MinePlacer}) are stored without the mine plane.
+ */
+public final class BoardCodec {
+    public static final byte VERSION = 2;
+
+    public static final int MINES_OMITTED = 1;
+
+    private static final int HEADER_SIZE = 1 + 1 + 4 + 4;
+    private static final int HEADER_SIZE_V1 = 1 + 4 + 4;
+
+    private BoardCodec() {
+    }
+
+    public static byte[] encode(Board board) {
+        return encode(board, true);
+    }
+
+    /**
+     * @param includeMines false to leave out the mine plane of a board that can be regenerated
+     */
+    public static byte[] encode(Board board, boolean includeMines) {
+        int planeSize = planeSize(board.size());
+        int planes = includeMines ? 3 : 2;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + planes * planeSize);
+        buffer.put(VERSION);
+        buffer.put((byte) (includeMines ? 0 : MINES_OMITTED));
+        buffer.putInt(board.getWidth());
+        buffer.putInt(board.getHeight());
+        if (includeMines) {
+            putPlane(buffer, board.mines(), planeSize);
+        }
+        putPlane(buffer, board.revealed(), planeSize);
+        putPlane(buffer, board.flagged(), planeSize);
+        return buffer.array();
+    }
+
+    public static Board decode(byte[] snapshot) {
+        return decode(snapshot, () -> {
+            throw new IllegalStateException("Board snapshot has no mines and no layout was supplied.");
+        });
+    }
+
+    /**
+     * @param layout supplies the regenerated board when the snapshot was stored without its mines
+     */
+    public static Board decode(byte[] snapshot, Supplier<Board> layout) {
+        if (snapshot == null || snapshot.length < HEADER_SIZE_V1) {
+            throw new IllegalStateException("Board snapshot is missing or truncated.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+        byte version = buffer.get();
+        if (version != 1 && version != VERSION) {
+            throw new IllegalStateException("Unsupported board snapshot version: " + version);
+        }
+        int flags = version == 1 ? 0 : buffer.get();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (width <= 0 || height <= 0) {
+            throw new IllegalStateException("Invalid board dimensions in snapshot: " + width + "x" + height);
+        }
+        boolean minesOmitted = (flags & MINES_OMITTED) != 0;
+        int planeSize = planeSize(width * height);
+        int planes = minesOmitted ? 2 : 3;
+        if (buffer.remaining() != planes * planeSize) {
+            throw new IllegalStateException("Board snapshot has " + buffer.remaining()
+                    + " payload bytes, expected " + planes * planeSize);
+        }
+
+        BitSet mines;
+        if (minesOmitted) {
+            Board regenerated = layout.get();
+            if (regenerated.getWidth() != width || regenerated.getHeight() != height) {
+                throw new IllegalStateException("Regenerated board does not match the snapshot dimensions.");
+            }
+            mines = regenerated.mines();
+        } else {
+            mines = getPlane(buffer, planeSize);
+        }
+        BitSet revealed = getPlane(buffer, planeSize);
+        BitSet flagged = getPlane(buffer, planeSize);
+        return new Board(width, height, mines, revealed, flagged);
+    }
+
+    private static int planeSize(int cells) {
+        return (cells + 7) / 8;
+    }
+
+    private static void putPlane(ByteBuffer buffer, BitSet plane, int planeSize) {
+        byte[] bytes = plane.toByteArray();
+        buffer.put(bytes, 0, Math.min(bytes.length, planeSize));
+        buffer.position(buffer.position() + Math.max(0, planeSize - bytes.length));
+    }
+
+    private static BitSet getPlane(ByteBuffer buffer, int planeSize) {
+        ByteBuffer plane = buffer.slice(buffer.position(), planeSize);
+        buffer.position(buffer.position() + planeSize);
+        return BitSet.valueOf(plane);
+    }
+}
@@ -0,0 +1,69 @@
+package com.minesweeper.engine;
+
+import java.util.Arrays;
+
+/**
+ * Dense client view of a {@link Board}: one nibble per square, two squares per byte with the
+ * lower index in the high nibble. Hidden mines are only shown once the game is over.
+ * <pre>
+ * 0..8      open square, its neighbour count
+ * {@value #HIDDEN}         hidden square
+ * {@value #FLAGGED}        flagged square
+ * {@value #MINE}        mine
+ * </pre>
+ */
+public final class BoardGrid {
+    public static final int HIDDEN = 9;
+    public static final int FLAGGED = 10;
+    public static final int MINE = 11;
+
+    private BoardGrid() {
+    }
+
+    /**
+     * @param showMines true to show every mine, e.g. when the game has ended
+     */
+    public static byte[] encode(Board board, boolean showMines) {
+        byte[] grid = new byte[length(board.size())];
+        for (int index = 0; index < board.size(); index++) {
+            set(grid, index, square(board, index, showMines));
+        }
+        return grid;
+    }
+
+    /**
+     * Grid of a board whose squares are all hidden, e.g. before a lazily generated board exists.
+     */
+    public static byte[] hidden(int size) {
+        byte[] grid = new byte[length(size)];
+        Arrays.fill(grid, (byte) (HIDDEN << 4 | HIDDEN));
+        return grid;
+    }
+
+    /**
+     * Value of a single square as shown to the player.
+     */
+    public static int square(Board board, int index, boolean showMines) {
+        if (board.isMine(index) && (showMines || board.isRevealed(index))) {
+            return MINE;
+        }
+        if (board.isRevealed(index)) {
+            return board.getCount(index);
+        }
+        return board.isFlagged(index) ? FLAGGED : HIDDEN;
+    }
+
+    public static int get(byte[] grid, int index) {
+        int packed = grid[index >> 1];
+        return (index & 1) == 0 ? (packed >> 4) & 0xF : packed & 0xF;
+    }
+
+    private static void set(byte[] grid, int index, int value) {
+        int shift = (index & 1) == 0 ? 4 : 0;
+        grid[index >> 1] |= (byte) (value << shift);
+    }
+
+    private static int length(int size) {
+        return (size + 1) >> 1;
+    }
+}
@@ -0,0 +1,158 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.GameDifficulty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded queues of pre-generated boards for the standard difficulties.
+ * <p>
+ * Boards of a standard difficulty do not depend on the player, so they are generated ahead of
+ * time on a dedicated executor and claimed by new games. Every claim tops its queue up again
+ * unless a refill of that difficulty is already running; an empty queue is a miss and the caller
+ * generates the board itself. Each board carries the seed it was generated from, so a game that claims it stays
+ * regenerable from its seed.
+ * <p>
+ * A capacity of zero disables the pool.
+ */
+public class BoardPool implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(BoardPool.class);
+
+    /**
+     * A board and the seed it was generated from.
+     */
+    public record PooledBoard(long seed, Board board) {
+    }
+
+    private final MinePlacer minePlacer;
+    private final int capacity;
+    private final ExecutorService generator;
+    private final Map<GameDifficulty, BlockingQueue<PooledBoard>> pools = new EnumMap<>(GameDifficulty.class);
+    private final Map<GameDifficulty, AtomicBoolean> refilling = new EnumMap<>(GameDifficulty.class);
+    private final Map<GameDifficulty, Counter> hits = new EnumMap<>(GameDifficulty.class);
+    private final Map<GameDifficulty, Counter> misses = new EnumMap<>(GameDifficulty.class);
+    private volatile boolean shutdown;
+
+    public BoardPool(MinePlacer minePlacer, int capacity, int threads) {
+        this.minePlacer = minePlacer;
+        this.capacity = capacity;
+        AtomicInteger count = new AtomicInteger();
+        this.generator = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "board-pool-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            pools.put(difficulty, new ArrayBlockingQueue<>(Math.max(capacity, 1)));
+            refilling.put(difficulty, new AtomicBoolean());
+        }
+    }
+
+    public boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Fills every queue in the background.
+     */
+    public void start() {
+        if (isEnabled()) {
+            pools.keySet().forEach(this::refill);
+        }
+    }
+
+    /**
+     * Takes a pre-generated board of the difficulty.
+     * @return the board, or null if the queue is empty or the pool is disabled
+     */
+    public PooledBoard claim(GameDifficulty difficulty) {
+        if (!isEnabled()) {
+            return null;
+        }
+        BlockingQueue<PooledBoard> pool = pools.get(difficulty);
+        PooledBoard board = pool.poll();
+        Counter counter = (board != null ? hits : misses).get(difficulty);
+        if (counter != null) {
+            counter.increment();
+        }
+        refill(difficulty);
+        return board;
+    }
+
+    public int depth(GameDifficulty difficulty) {
+        return pools.get(difficulty).size();
+    }
+
+    /**
+     * Publishes {@code minesweeper.board.pool.depth} and {@code minesweeper.board.pool.claims}
+     * tagged by difficulty and {@code result} ({@code hit} or {@code miss}).
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            Gauge.builder("minesweeper.board.pool.depth", pools.get(difficulty), BlockingQueue::size)
+                    .description("Pre-generated boards waiting to be claimed")
+                    .tag("difficulty", difficulty.name())
+                    .register(registry);
+            hits.put(difficulty, claims(registry, difficulty, "hit"));
+            misses.put(difficulty, claims(registry, difficulty, "miss"));
+        }
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        generator.shutdownNow();
+    }
+
+    private static Counter claims(MeterRegistry registry, GameDifficulty difficulty, String result) {
+        return Counter.builder("minesweeper.board.pool.claims")
+                .description("Claims of pre-generated boards; a miss generates the board on the request thread")
+                .tag("difficulty", difficulty.name())
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private void refill(GameDifficulty difficulty) {
+        AtomicBoolean running = refilling.get(difficulty);
+        if (shutdown || !running.compareAndSet(false, true)) {
+            return;
+        }
+        BlockingQueue<PooledBoard> pool = pools.get(difficulty);
+        try {
+            generator.execute(() -> {
+                try {
+                    int generated = 0;
+                    while (!shutdown && pool.remainingCapacity() > 0) {
+                        long seed = ThreadLocalRandom.current().nextLong();
+                        pool.offer(new PooledBoard(seed, minePlacer.generate(difficulty.getWidth(),
+                                difficulty.getHeight(), difficulty.getMines(), seed)));
+                        generated++;
+                    }
+                    log.debug("LOG: Generated {} {} boards for the pool", generated, difficulty);
+                } finally {
+                    running.set(false);
+                }
+                // A claim made after the last check found the refill still running
+                if (pool.remainingCapacity() > 0) {
+                    refill(difficulty);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.Game;
+
+import java.util.BitSet;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Places mines with Floyd's sampling over linear indices: exactly {@code mines} draws and no
+ * rejection loop, however dense the board.
+ * <p>
+ * A board can be generated around a safe square (the first click of a lazily generated game).
+ * The 3x3 block centred on it, shifted inwards at the edges, is kept free of mines; it is
+ * always nine squares, so the sample does not depend on where the player clicked. When fewer
+ * than nine safe squares exist only the safe square itself is excluded.
+ * <p>
+ * The layout is a pure function of the dimensions, the mine count, the seed and the random
+ * algorithm, so a seeded board can be regenerated instead of persisted. Changing the algorithm or
+ * the sampling order changes every existing seeded board.
+ */
+public class MinePlacer {
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    public static final int NO_SAFE_SQUARE = -1;
+
+    private final RandomGeneratorFactory<RandomGenerator> factory;
+
+    public MinePlacer() {
+        this(DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * @param algorithm a {@link RandomGeneratorFactory} algorithm name, e.g. {@code SplittableRandom}
+     */
+    public MinePlacer(String algorithm) {
+        this.factory = RandomGeneratorFactory.of(algorithm);
+    }
+
+    public String getAlgorithm() {
+        return factory.name();
+    }
+
+    /**
+     * Regenerates the mine layout of a seeded game.
+     * @param game the game
+     * @return the generated board
+     */
+    public Board generate(Game game) {
+        if (game.getSeed() == null) {
+            throw new IllegalStateException("Game " + game.getId() + " has no seed.");
+        }
+        return generate(game.getWidth(), game.getHeight(), game.getMinesCount(), game.getSeed(),
+                game.getSafeIndex() == null ? NO_SAFE_SQUARE : game.getSafeIndex());
+    }
+
+    /**
+     * Generates a board with {@code mines} mines and computed neighbour counts.
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param mines the number of mines
+     * @param seed the seed of the random generator
+     * @return the generated board
+     */
+    public Board generate(int width, int height, int mines, long seed) {
+        return generate(width, height, mines, seed, NO_SAFE_SQUARE);
+    }
+
+    /**
+     * Generates a board whose safe zone around {@code safeIndex} has no mines.
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param mines the number of mines
+     * @param seed the seed of the random generator
+     * @param safeIndex linear index of the safe square, or {@link #NO_SAFE_SQUARE}
+     * @return the generated board
+     */
+    public Board generate(int width, int height, int mines, long seed, int safeIndex) {
+        Board board = placeMines(width, height, mines, seed, safeIndex);
+        board.computeCounts();
+        return board;
+    }
+
+    /**
+     * Places the mines of {@link #generate(int, int, int, long, int)} without computing the
+     * neighbour counts.
+     */
+    public Board placeMines(int width, int height, int mines, long seed, int safeIndex) {
+        Board board = new Board(width, height);
+        if (mines < 0 || mines >= board.size()) {
+            throw new IllegalArgumentException("Cannot place " + mines + " mines on a board of "
+                    + board.size() + " cells.");
+        }
+        if (safeIndex != NO_SAFE_SQUARE && (safeIndex < 0 || safeIndex >= board.size())) {
+            throw new IllegalArgumentException("Safe square " + safeIndex + " is outside the board.");
+        }
+        int[] safeZone = safeZone(width, height, mines, safeIndex);
+        BitSet slots = sample(board.size() - safeZone.length, mines, factory.create(seed));
+
+        // Slot s is the s-th square that is not in the (sorted) safe zone
+        int skipped = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            while (skipped < safeZone.length && safeZone[skipped] <= slot + skipped) {
+                skipped++;
+            }
+            board.placeMine(slot + skipped);
+        }
+        return board;
+    }
+
+    static int[] safeZone(int width, int height, int mines, int safeIndex) {
+        if (safeIndex == NO_SAFE_SQUARE) {
+            return new int[0];
+        }
+        if (width < 3 || height < 3 || width * height - mines < 9) {
+            return new int[]{safeIndex};
+        }
+        int top = Math.min(Math.max(safeIndex / width - 1, 0), height - 3);
+        int left = Math.min(Math.max(safeIndex % width - 1, 0), width - 3);
+        int[] zone = new int[9];
+        for (int i = 0; i < 9; i++) {
+            zone[i] = (top + i / 3) * width + left + i % 3;
+        }
+        return zone;
+    }
+
+    private BitSet sample(int slots, int mines, RandomGenerator random) {
+        BitSet sample = new BitSet(slots);
+        for (int j = slots - mines; j < slots; j++) {
+            int candidate = random.nextInt(j + 1);
+            sample.set(sample.get(candidate) ? j : candidate);
+        }
+        return sample;
+    }
+}
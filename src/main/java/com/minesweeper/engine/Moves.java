@@ -0,0 +1,76 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+
+import java.util.BitSet;
+
+/**
+ * The rules of a single move on a board, shared by live play and replay.
+ */
+public final class Moves {
+
+    private Moves() {
+    }
+
+    /**
+     * Applies a move and records the squares it changes. Revealing a square without neighbouring
+     * mines also opens the empty region around it; a chord on a number whose mines are all flagged
+     * opens its remaining neighbours, merging everything they open into the same change set.
+     * @param board the board
+     * @param type the move
+     * @param index the linear index of the square
+     * @param changed receives the changed squares
+     * @return {@link MoveOutcome#MINE} if a mine was opened, {@link MoveOutcome#IGNORED} if nothing changed
+     */
+    public static MoveOutcome apply(Board board, MoveType type, int index, BitSet changed) {
+        return switch (type) {
+            case REVEAL -> reveal(board, index, changed);
+            case FLAG -> flag(board, index, true, changed);
+            case UNFLAG -> flag(board, index, false, changed);
+            case CHORD -> chord(board, index, changed);
+        };
+    }
+
+    private static MoveOutcome reveal(Board board, int index, BitSet changed) {
+        if (board.isFlagged(index) || !board.reveal(index)) {
+            return MoveOutcome.IGNORED;
+        }
+        changed.set(index);
+        if (board.isMine(index)) {
+            return MoveOutcome.MINE;
+        }
+        for (int square : board.floodFill(index)) {
+            changed.set(square);
+        }
+        return MoveOutcome.REVEALED;
+    }
+
+    /**
+     * Opens every target even if one of them is a mine, as a misplaced flag costs the game either way.
+     */
+    private static MoveOutcome chord(Board board, int index, BitSet changed) {
+        int[] targets = new int[8];
+        int count = board.chordTargets(index, targets);
+        MoveOutcome outcome = MoveOutcome.IGNORED;
+        for (int i = 0; i < count; i++) {
+            // A flood fill from an earlier target may already have opened this one
+            MoveOutcome opened = reveal(board, targets[i], changed);
+            if (opened == MoveOutcome.MINE) {
+                outcome = MoveOutcome.MINE;
+            } else if (opened == MoveOutcome.REVEALED && outcome == MoveOutcome.IGNORED) {
+                outcome = MoveOutcome.REVEALED;
+            }
+        }
+        return outcome;
+    }
+
+    private static MoveOutcome flag(Board board, int index, boolean value, BitSet changed) {
+        if (board.isRevealed(index) || board.isFlagged(index) == value) {
+            return MoveOutcome.IGNORED;
+        }
+        board.setFlagged(index, value);
+        changed.set(index);
+        return value ? MoveOutcome.FLAGGED : MoveOutcome.UNFLAGGED;
+    }
+}
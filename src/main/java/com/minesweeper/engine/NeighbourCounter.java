@@ -0,0 +1,155 @@
+package com.minesweeper.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Computes the neighbour count of every square in one whole-board pass.
+ * <p>
+ * The board is walked as a convolution with a 3x3 kernel over a byte grid padded with a zero
+ * border, which removes all bounds checks. Only three padded rows are kept at a time: each row
+ * is expanded from the mine bits once, eight squares per table lookup, then for every row
+ * <pre>
+ * v[c]        = above[c] + centre[c] + below[c]
+ * count[r][c] = v[c - 1] + v[c] + v[c + 1] - centre[c]
+ * </pre>
+ * Both sums are lane-wise byte operations. When the {@code jdk.incubator.vector} module is
+ * present (start the JVM with {@code --add-modules jdk.incubator.vector}) they run on the Vector
+ * API, otherwise on the scalar loops below.
+ */
+public abstract class NeighbourCounter {
+    private static final Logger log = LoggerFactory.getLogger(NeighbourCounter.class);
+
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    // EXPANDED_BYTES[b] holds bit j of b in byte j
+    private static final long[] EXPANDED_BYTES = new long[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            for (int j = 0; j < 8; j++) {
+                EXPANDED_BYTES[b] |= (long) ((b >>> j) & 1) << (8 * j);
+            }
+        }
+    }
+
+    private static final NeighbourCounter INSTANCE = create();
+
+    public static NeighbourCounter getInstance() {
+        return INSTANCE;
+    }
+
+    public static NeighbourCounter scalar() {
+        return new ScalarNeighbourCounter();
+    }
+
+    private static NeighbourCounter create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (NeighbourCounter) Class.forName("com.minesweeper.engine.VectorNeighbourCounter")
+                        .getDeclaredConstructor()
+                        .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector API is present but unusable, falling back to scalar neighbour counts", e);
+            }
+        }
+        return scalar();
+    }
+
+    /**
+     * Writes the number of neighbouring mines of every square into {@code counts}.
+     * @param mines the mine plane, bit {@code row * width + col}
+     * @param width the width of the board
+     * @param height the height of the board
+     * @param counts output array of {@code width * height} entries
+     */
+    public void count(BitSet mines, int width, int height, byte[] counts) {
+        long[] words = mines.toLongArray();
+        int stride = width + 2;
+        byte[] above = new byte[stride];
+        byte[] centre = new byte[stride];
+        byte[] below = new byte[stride];
+        byte[] vertical = new byte[stride];
+
+        expand(words, 0, width, centre, 1);
+        for (int row = 0; row < height; row++) {
+            if (row + 1 < height) {
+                expand(words, (row + 1) * width, width, below, 1);
+            } else {
+                Arrays.fill(below, (byte) 0);
+            }
+            sum3(above, centre, below, vertical, stride);
+            sum3MinusCentre(vertical, centre, counts, row * width, width);
+
+            byte[] recycled = above;
+            above = centre;
+            centre = below;
+            below = recycled;
+        }
+    }
+
+    /**
+     * Returns {@code length <= 64} bits of {@code words} starting at bit {@code from}, lowest bit first.
+     */
+    static long bits(long[] words, int from, int length) {
+        int word = from >>> 6;
+        int shift = from & 63;
+        long value = word < words.length ? words[word] >>> shift : 0L;
+        if (shift != 0 && word + 1 < words.length) {
+            value |= words[word + 1] << (64 - shift);
+        }
+        return length == 64 ? value : value & ((1L << length) - 1);
+    }
+
+    /**
+     * {@code out[outFrom + i] = bit(from + i) ? 1 : 0} for {@code i < length}, eight squares per store.
+     */
+    static void expand(long[] words, int from, int length, byte[] out, int outFrom) {
+        int i = 0;
+        for (; i + 64 <= length; i += 64) {
+            long bits = bits(words, from + i, 64);
+            for (int j = 0; j < 64; j += 8) {
+                LONG_VIEW.set(out, outFrom + i + j, EXPANDED_BYTES[(int) (bits >>> j) & 0xFF]);
+            }
+        }
+        if (i < length) {
+            long bits = bits(words, from + i, length - i);
+            for (int j = 0; i + j < length; j++) {
+                out[outFrom + i + j] = (byte) ((bits >>> j) & 1);
+            }
+        }
+    }
+
+    /**
+     * {@code out[i] = a[i] + b[i] + c[i]} for {@code i < length}.
+     */
+    abstract void sum3(byte[] a, byte[] b, byte[] c, byte[] out, int length);
+
+    /**
+     * {@code out[outFrom + i] = v[i] + v[i + 1] + v[i + 2] - centre[i + 1]} for {@code i < length}.
+     */
+    abstract void sum3MinusCentre(byte[] v, byte[] centre, byte[] out, int outFrom, int length);
+
+    static class ScalarNeighbourCounter extends NeighbourCounter {
+
+        @Override
+        void sum3(byte[] a, byte[] b, byte[] c, byte[] out, int length) {
+            for (int i = 0; i < length; i++) {
+                out[i] = (byte) (a[i] + b[i] + c[i]);
+            }
+        }
+
+        @Override
+        void sum3MinusCentre(byte[] v, byte[] centre, byte[] out, int outFrom, int length) {
+            for (int i = 0; i < length; i++) {
+                out[outFrom + i] = (byte) (v[i] + v[i + 1] + v[i + 2] - centre[i + 1]);
+            }
+        }
+    }
+}
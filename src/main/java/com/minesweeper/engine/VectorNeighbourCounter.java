@@ -0,0 +1,43 @@
+package com.minesweeper.engine;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of {@link NeighbourCounter}. Only loaded when the
+ * {@code jdk.incubator.vector} module is part of the boot layer.
+ */
+class VectorNeighbourCounter extends NeighbourCounter {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    void sum3(byte[] a, byte[] b, byte[] c, byte[] out, int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        for (; i < upperBound; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, i)
+                    .add(ByteVector.fromArray(SPECIES, b, i))
+                    .add(ByteVector.fromArray(SPECIES, c, i))
+                    .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = (byte) (a[i] + b[i] + c[i]);
+        }
+    }
+
+    @Override
+    void sum3MinusCentre(byte[] v, byte[] centre, byte[] out, int outFrom, int length) {
+        int i = 0;
+        int upperBound = SPECIES.loopBound(length);
+        for (; i < upperBound; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, v, i)
+                    .add(ByteVector.fromArray(SPECIES, v, i + 1))
+                    .add(ByteVector.fromArray(SPECIES, v, i + 2))
+                    .sub(ByteVector.fromArray(SPECIES, centre, i + 1))
+                    .intoArray(out, outFrom + i);
+        }
+        for (; i < length; i++) {
+            out[outFrom + i] = (byte) (v[i] + v[i + 1] + v[i + 2] - centre[i + 1]);
+        }
+    }
+}
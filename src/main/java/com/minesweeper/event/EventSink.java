@@ -0,0 +1,18 @@
+package com.minesweeper.event;
+
+import java.io.IOException;
+
+/**
+ * Receiving end of a subscription, e.g. an SSE connection. Called from the bus's sender threads,
+ * never from the thread that published the event.
+ */
+public interface EventSink {
+
+    void send(GameEvent event) throws IOException;
+
+    /**
+     * Ends the subscription.
+     * @param reason null when the feed ended normally, otherwise why the subscriber was dropped
+     */
+    void close(Throwable reason);
+}
@@ -0,0 +1,32 @@
+package com.minesweeper.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.minesweeper.dto.BoardDelta;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.model.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * An event of a game's feed. {@code sequence} increases by one per event of the game, so a
+ * subscriber can tell that it missed some; {@code game} is only set on the snapshot sent when
+ * subscribing, {@code delta} only on moves.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameEvent {
+    public enum Type {
+        SNAPSHOT, MOVE
+    }
+
+    private final Type type;
+    private final UUID gameId;
+    private final long sequence;
+    private final GameState state;
+    private final int revealedSafeCount;
+    private final GameResponse game;
+    private final BoardDelta delta;
+}
@@ -0,0 +1,249 @@
+package com.minesweeper.event;
+
+import com.minesweeper.dto.BoardDelta;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of game events to subscribers.
+ * <p>
+ * Publishing never blocks: every subscription has a bounded queue that is drained by a small pool
+ * of sender threads, one drain at a time per subscription so events arrive in order. A subscriber
+ * whose queue is full is dropped; it can resubscribe and starts again from a snapshot. A send
+ * that takes longer than {@code minesweeper.events.send-timeout} drops its subscriber and
+ * interrupts the blocked write, so a few stalled connections hold the sender threads, and with
+ * them every other feed, for at most that long. Subscriptions end after the event that finishes
+ * the game.
+ */
+@Component
+public class GameEventBus implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(GameEventBus.class);
+
+    private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final ScheduledThreadPoolExecutor watchdog;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private Counter dropped;
+    private Counter timedOut;
+
+    public GameEventBus(@Value("${minesweeper.events.queue-capacity:256}") int queueCapacity,
+                        @Value("${minesweeper.events.sender-threads:4}") int senderThreads,
+                        @Value("${minesweeper.events.send-timeout:PT5S}") Duration sendTimeout) {
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "game-events-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Almost every send finishes in time, so its cancelled check must not linger in the queue
+        this.watchdog.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Subscribes to a game's events, starting with the given snapshot. The caller holds the game's
+     * lock, so no move is published between the snapshot and the subscription.
+     * @param gameId the game identifier
+     * @param sink receives the events
+     * @param snapshot the current view of the game
+     * @return a handle that cancels the subscription
+     */
+    public Runnable subscribe(UUID gameId, EventSink sink, GameResponse snapshot) {
+        Subscription subscription = new Subscription(gameId, sink);
+        subscriptions.incrementAndGet();
+        topics.compute(gameId, (id, topic) -> {
+            Topic current = topic != null ? topic : new Topic();
+            subscription.offer(new GameEvent(GameEvent.Type.SNAPSHOT, gameId, current.sequence.get(), snapshot.getState(),
+                    snapshot.getRevealedSafeCount() != null ? snapshot.getRevealedSafeCount() : 0, snapshot, null));
+            current.subscriptions.add(subscription);
+            return current;
+        });
+        return () -> subscription.cancel(null);
+    }
+
+    public boolean hasSubscribers(UUID gameId) {
+        Topic topic = topics.get(gameId);
+        return topic != null && !topic.subscriptions.isEmpty();
+    }
+
+    /**
+     * Publishes the squares changed by a move. Callers publish events of one game in order, e.g.
+     * while holding the game's lock.
+     */
+    public void publishMove(Game game, BoardDelta delta) {
+        Topic topic = topics.get(game.getId());
+        if (topic == null) {
+            return;
+        }
+        GameEvent event = new GameEvent(GameEvent.Type.MOVE, game.getId(), topic.sequence.incrementAndGet(),
+                game.getState(), game.getRevealedSafeCount(), null, delta);
+        for (Subscription subscription : topic.subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public int subscriptionCount() {
+        return subscriptions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minesweeper.events.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open game event subscriptions")
+                .register(registry);
+        dropped = Counter.builder("minesweeper.events.dropped")
+                .description("Subscribers dropped because they could not keep up")
+                .register(registry);
+        timedOut = Counter.builder("minesweeper.events.send.timeouts")
+                .description("Subscribers dropped because a send to them stalled")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        topics.values().forEach(topic -> topic.subscriptions.forEach(subscription -> subscription.cancel(null)));
+        senders.shutdown();
+        watchdog.shutdownNow();
+    }
+
+    private static final class Topic {
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final AtomicLong sequence = new AtomicLong();
+    }
+
+    private final class Subscription implements Runnable {
+        private final UUID gameId;
+        private final EventSink sink;
+        private final Queue<GameEvent> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        // The thread blocked in the current send, guarded by this; cleared once the send returns
+        private Thread sending;
+        private boolean interrupted;
+
+        private Subscription(UUID gameId, EventSink sink) {
+            this.gameId = gameId;
+            this.sink = sink;
+        }
+
+        private void offer(GameEvent event) {
+            if (cancelled.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("Dropping a slow subscriber of game {} after {} queued events", gameId, queueCapacity);
+                if (dropped != null) {
+                    dropped.increment();
+                }
+                cancel(new IllegalStateException("Subscriber fell more than " + queueCapacity + " events behind."));
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                GameEvent event;
+                while (!cancelled.get() && (event = queue.poll()) != null) {
+                    send(event);
+                    if (event.getState() != GameState.IN_PROGRESS) {
+                        cancel(null);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("LOG: Subscriber of game {} disconnected: {}", gameId, e.getMessage());
+                cancel(e);
+            } finally {
+                scheduled.set(false);
+            }
+            // An event offered after the last poll but before the flag was cleared
+            if (!cancelled.get() && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        private void send(GameEvent event) throws IOException {
+            synchronized (this) {
+                sending = Thread.currentThread();
+            }
+            ScheduledFuture<?> check = watchdog.schedule(this::stalled, sendTimeoutNanos, TimeUnit.NANOSECONDS);
+            try {
+                sink.send(event);
+            } finally {
+                check.cancel(false);
+                synchronized (this) {
+                    sending = null;
+                    if (interrupted) {
+                        // Interrupted for this send only, not for the next subscription the thread drains
+                        Thread.interrupted();
+                        interrupted = false;
+                    }
+                }
+            }
+        }
+
+        private synchronized void stalled() {
+            if (sending == null) {
+                return;
+            }
+            log.warn("Dropping a subscriber of game {} whose send stalled for {} ms", gameId,
+                    TimeUnit.NANOSECONDS.toMillis(sendTimeoutNanos));
+            if (timedOut != null) {
+                timedOut.increment();
+            }
+            cancel(new TimeoutException("Send to the subscriber stalled."));
+            interrupted = true;
+            sending.interrupt();
+        }
+
+        private void cancel(Throwable reason) {
+            if (!cancelled.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscriptions.decrementAndGet();
+            topics.computeIfPresent(gameId, (id, topic) -> {
+                topic.subscriptions.remove(this);
+                return topic.subscriptions.isEmpty() ? null : topic;
+            });
+            // The sink may be blocked mid-send, so it is never closed on the publishing thread
+            try {
+                senders.execute(() -> sink.close(reason));
+            } catch (RejectedExecutionException e) {
+                sink.close(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.minesweeper.history;
+
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.model.CellState;
+import com.minesweeper.model.Game;
+import com.minesweeper.repository.CellBatchRepository;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scheduled job that moves finished and idle games into their archived form.
+ * <p>
+ * Each run archives at most {@code minesweeper.archive.chunk-size} games, oldest activity first,
+ * one short transaction per game: the game is flagged archived, its board is packed into the
+ * snapshot column if it only had cell rows, and {@link GameHistory#archive} replaces its move log
+ * and snapshots with one compressed row. Its {@code cell} rows are deleted afterwards in batches of
+ * {@code minesweeper.archive.delete-batch-size}, each committed on its own, so a large board never
+ * holds many row locks at once. An interrupted deletion is resumed by the next run.
+ * <p>
+ * Archived games still load for play and for {@link GameHistory#replay}. Games held in this
+ * node's {@link GameCache} are skipped, and the version bump of the archival stops a copy loaded
+ * elsewhere from being written back.
+ */
+@Component
+public class GameArchiver implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(GameArchiver.class);
+
+    private final GameRepository gameRepository;
+    private final CellRepository cellRepository;
+    private final CellBatchRepository cellBatchRepository;
+    private final GameArchiveRepository gameArchiveRepository;
+    private final GameHistory gameHistory;
+    private final GameCache gameCache;
+    private final GameLocks gameLocks;
+    private final TransactionOperations transactionOperations;
+    private final Duration idleAfter;
+    private final Duration finishedAfter;
+    private final int chunkSize;
+    private final int deleteBatchSize;
+
+    private Counter archivedGames;
+    private Counter failedGames;
+    private Counter deletedCells;
+
+    /**
+     * @param idleAfter time without a move after which a game in progress is archived
+     * @param finishedAfter time after which a won or lost game is archived
+     * @param chunkSize games archived per run
+     * @param deleteBatchSize cell rows deleted per statement
+     */
+    public GameArchiver(GameRepository gameRepository, CellRepository cellRepository,
+                        CellBatchRepository cellBatchRepository, GameArchiveRepository gameArchiveRepository,
+                        GameHistory gameHistory, GameCache gameCache, GameLocks gameLocks,
+                        TransactionOperations transactionOperations,
+                        @Value("${minesweeper.archive.idle-after:P7D}") Duration idleAfter,
+                        @Value("${minesweeper.archive.finished-after:PT1H}") Duration finishedAfter,
+                        @Value("${minesweeper.archive.chunk-size:100}") int chunkSize,
+                        @Value("${minesweeper.archive.delete-batch-size:1000}") int deleteBatchSize) {
+        this.gameRepository = gameRepository;
+        this.cellRepository = cellRepository;
+        this.cellBatchRepository = cellBatchRepository;
+        this.gameArchiveRepository = gameArchiveRepository;
+        this.gameHistory = gameHistory;
+        this.gameCache = gameCache;
+        this.gameLocks = gameLocks;
+        this.transactionOperations = transactionOperations;
+        this.idleAfter = idleAfter;
+        this.finishedAfter = finishedAfter;
+        this.chunkSize = chunkSize;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    /**
+     * Archives one chunk of games, then deletes the cell rows of archived games.
+     */
+    @Scheduled(fixedDelayString = "${minesweeper.archive.interval:PT1M}",
+            initialDelayString = "${minesweeper.archive.interval:PT1M}")
+    public synchronized void run() {
+        Instant now = Instant.now();
+        List<UUID> candidates = gameRepository.findArchiveCandidates(now.minus(idleAfter), now.minus(finishedAfter),
+                PageRequest.of(0, chunkSize));
+        int archived = 0;
+        for (UUID gameId : candidates) {
+            if (archive(gameId)) {
+                archived++;
+            }
+        }
+        long deleted = deleteCells();
+        if (archived > 0 || deleted > 0) {
+            log.info("LOG: Archived {} games and deleted {} cell rows", archived, deleted);
+        }
+    }
+
+    private boolean archive(UUID gameId) {
+        try {
+            boolean archived = gameLocks.withLock(gameId, () -> gameCache.getIfCached(gameId) == null
+                    && Boolean.TRUE.equals(transactionOperations.execute(status -> archiveInTransaction(gameId))));
+            if (archived && archivedGames != null) {
+                archivedGames.increment();
+            }
+            return archived;
+        } catch (RuntimeException e) {
+            log.error("Failed to archive game {}, retrying on the next run", gameId, e);
+            if (failedGames != null) {
+                failedGames.increment();
+            }
+            return false;
+        }
+    }
+
+    private boolean archiveInTransaction(UUID gameId) {
+        // Taken first: the row lock makes a concurrent write of the game wait for, then fail on, the archival
+        if (gameRepository.markArchived(gameId) == 0) {
+            return false;
+        }
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new IllegalStateException("Game " + gameId + " disappeared while archiving."));
+        if (game.getBoard() == null && game.isBoardGenerated()) {
+            List<CellState> cells = cellRepository.findStatesByGameId(gameId);
+            if (cells.isEmpty()) {
+                throw new IllegalStateException("Game " + gameId + " has neither a board snapshot nor cells.");
+            }
+            Board board = Board.fromCells(game.getWidth(), game.getHeight(), cells);
+            gameRepository.updateBoard(gameId, BoardCodec.encode(board, game.getSeed() == null));
+        }
+        gameHistory.archive(game);
+        return true;
+    }
+
+    private long deleteCells() {
+        long deleted = 0;
+        for (UUID gameId : gameArchiveRepository.findWithCells(chunkSize)) {
+            try {
+                int batch;
+                do {
+                    batch = cellBatchRepository.deleteBatch(gameId, deleteBatchSize);
+                    deleted += batch;
+                    if (deletedCells != null) {
+                        deletedCells.increment(batch);
+                    }
+                } while (batch == deleteBatchSize);
+                gameArchiveRepository.markCellsDeleted(gameId);
+            } catch (RuntimeException e) {
+                log.error("Failed to delete the cells of archived game {}, retrying on the next run", gameId, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Publishes {@code minesweeper.archive.games} by {@code result} ({@code archived} or
+     * {@code failed}) and {@code minesweeper.archive.cells.deleted}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        archivedGames = games(registry, "archived");
+        failedGames = games(registry, "failed");
+        deletedCells = Counter.builder("minesweeper.archive.cells.deleted")
+                .description("Cell rows of archived games deleted")
+                .register(registry);
+    }
+
+    private static Counter games(MeterRegistry registry, String result) {
+        return Counter.builder("minesweeper.archive.games")
+                .description("Finished and idle games moved to the archive")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,211 @@
+package com.minesweeper.history;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.MoveLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Append-only move log of games, and replay from it.
+ * <p>
+ * Moves that changed the board are buffered in the live game and appended by the write-behind
+ * flush as one row of {@link MoveLog} records, in the same transaction as the game itself. Each
+ * time the log crosses a multiple of {@code minesweeper.history.snapshot-interval} moves the board
+ * is checkpointed, so a replay starts from the nearest snapshot, or from the seed, and applies at
+ * most one interval of moves. Games without a seed also get a snapshot of their mine layout with
+ * their first logged moves, as there is nothing else to start from.
+ * <p>
+ * Archiving a game replaces its log rows and snapshots with one deflated {@code game_archive} row.
+ * Its replays start from the mine layout and read the archived moves first, then any moves
+ * logged after the archival.
+ */
+@Component
+public class GameHistory {
+    private static final Logger log = LoggerFactory.getLogger(GameHistory.class);
+
+    /**
+     * A board replayed to a given number of moves.
+     */
+    public record Replay(Board board, GameState state, int moves) {
+    }
+
+    private final MoveLogRepository moveLogRepository;
+    private final GameArchiveRepository gameArchiveRepository;
+    private final MinePlacer minePlacer;
+    private final int snapshotInterval;
+
+    public GameHistory(MoveLogRepository moveLogRepository, GameArchiveRepository gameArchiveRepository,
+                       MinePlacer minePlacer,
+                       @Value("${minesweeper.history.snapshot-interval:256}") int snapshotInterval) {
+        this.moveLogRepository = moveLogRepository;
+        this.gameArchiveRepository = gameArchiveRepository;
+        this.minePlacer = minePlacer;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Appends the moves played since the previous append; {@code game.getMoveCount()} already
+     * includes them. Must run inside the transaction that writes the game.
+     */
+    public void append(Game game, Board board, MoveLog moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+        int total = game.getMoveCount();
+        int first = total - moves.count();
+        moveLogRepository.append(game.getId(), first, moves.count(), moves.toByteArray());
+        if (board != null && first == 0 && game.getSeed() == null) {
+            saveBaseSnapshot(game, board, moves);
+        }
+        if (board != null && first / snapshotInterval != total / snapshotInterval) {
+            moveLogRepository.saveSnapshot(game.getId(), total, BoardCodec.encode(board, game.getSeed() == null));
+            log.debug("LOG: Saved snapshot of game {} after {} moves", game.getId(), total);
+        }
+    }
+
+    /**
+     * Gives a game without a seed the board to replay its first moves from. That is its mine layout,
+     * unless it was played before the log existed; then the first logged moves do not lead from the
+     * layout to the board, and replays start from the board after them.
+     */
+    private void saveBaseSnapshot(Game game, Board board, MoveLog moves) {
+        Board layout = board.layout();
+        Board replayed = layout.copy();
+        BitSet changed = new BitSet();
+        for (MoveLog.Entry entry : MoveLog.decode(moves.toByteArray())) {
+            Moves.apply(replayed, entry.type(), entry.index(), changed);
+        }
+        if (sameSquares(replayed, board)) {
+            moveLogRepository.saveSnapshot(game.getId(), 0, BoardCodec.encode(layout, true));
+        } else if (moves.count() % snapshotInterval != 0) {
+            // Not already checkpointed by the interval
+            moveLogRepository.saveSnapshot(game.getId(), moves.count(), BoardCodec.encode(board, true));
+            log.info("LOG: Game {} was played before its move log, replays start after {} moves", game.getId(), moves.count());
+        }
+    }
+
+    private static boolean sameSquares(Board a, Board b) {
+        for (int index = 0; index < a.size(); index++) {
+            if (a.isRevealed(index) != b.isRevealed(index) || a.isFlagged(index) != b.isFlagged(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the board of a game after its first {@code moves} logged moves.
+     * @param game the game
+     * @param moves the number of moves, at most {@code game.getMoveCount()}
+     * @return the replayed board, or a null board if there is no board to start from yet
+     */
+    public Replay replay(Game game, int moves) {
+        if (moves < 0 || moves > game.getMoveCount()) {
+            throw new IllegalArgumentException("Game " + game.getId() + " has " + game.getMoveCount() + " logged moves.");
+        }
+        Optional<MoveLogRepository.Snapshot> snapshot = moveLogRepository.findSnapshot(game.getId(), moves);
+        Board board;
+        int replayed;
+        if (snapshot.isPresent()) {
+            board = BoardCodec.decode(snapshot.get().board(), () -> minePlacer.generate(game));
+            replayed = snapshot.get().moveCount();
+        } else if (!game.isBoardGenerated()) {
+            return new Replay(null, GameState.IN_PROGRESS, 0);
+        } else if (game.isArchived() && game.getSeed() == null) {
+            // The snapshots are gone, but the packed board still holds the mines
+            board = BoardCodec.decode(game.getBoard()).layout();
+            replayed = 0;
+        } else if (moves == 0 && game.getSeed() == null) {
+            return new Replay(null, GameState.IN_PROGRESS, 0);
+        } else if (game.getSeed() == null) {
+            throw new IllegalStateException("Game " + game.getId() + " has neither a seed nor a snapshot to replay from.");
+        } else {
+            board = minePlacer.generate(game);
+            replayed = 0;
+        }
+
+        BitSet changed = new BitSet();
+        for (MoveLogRepository.Chunk chunk : chunks(game, replayed, moves)) {
+            List<MoveLog.Entry> entries = MoveLog.decode(chunk.moves());
+            for (int i = replayed - chunk.firstMove(); i < entries.size() && replayed < moves; i++) {
+                MoveLog.Entry entry = entries.get(i);
+                Moves.apply(board, entry.type(), entry.index(), changed);
+                replayed++;
+            }
+        }
+        if (replayed != moves) {
+            throw new IllegalStateException("The move log of game " + game.getId() + " ends after " + replayed + " moves.");
+        }
+        GameState state = board.hasRevealedMine() ? GameState.LOST
+                : board.isWon() ? GameState.WON : GameState.IN_PROGRESS;
+        return new Replay(board, state, moves);
+    }
+
+    /**
+     * Packs the moves logged so far into one compressed archive row and drops the log rows and
+     * snapshots. Must run inside the transaction that marks the game archived.
+     */
+    public void archive(Game game) {
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        for (MoveLogRepository.Chunk chunk : moveLogRepository.findMoves(game.getId(), 0, game.getMoveCount())) {
+            records.writeBytes(chunk.moves());
+        }
+        byte[] packed = deflate(records.toByteArray());
+        gameArchiveRepository.save(game.getId(), game.getMoveCount(), packed);
+        moveLogRepository.deleteLog(game.getId());
+        log.debug("LOG: Archived {} moves of game {} in {} bytes", game.getMoveCount(), game.getId(), packed.length);
+    }
+
+    /**
+     * The log rows overlapping moves {@code [from, to)}, preceded by the archived moves if they are needed.
+     */
+    private List<MoveLogRepository.Chunk> chunks(Game game, int from, int to) {
+        List<MoveLogRepository.Chunk> chunks = new ArrayList<>();
+        if (game.isArchived() && from < to) {
+            gameArchiveRepository.find(game.getId())
+                    .filter(archive -> archive.moveCount() > from)
+                    .ifPresent(archive -> chunks.add(new MoveLogRepository.Chunk(0, archive.moveCount(), inflate(archive.moves()))));
+        }
+        chunks.addAll(moveLogRepository.findMoves(game.getId(), from, to));
+        return chunks;
+    }
+
+    private static byte[] deflate(byte[] records) {
+        ByteArrayOutputStream packed = new ByteArrayOutputStream(records.length / 2 + 16);
+        try (OutputStream out = new DeflaterOutputStream(packed)) {
+            out.write(records);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return packed.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] packed) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(packed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Archived move log is corrupt.", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.minesweeper.history;
+
+import com.minesweeper.model.MoveType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary move records: one byte for the {@link MoveType} ordinal followed by the linear index of
+ * the square as an unsigned LEB128 varint, so a move on a standard board takes two or three bytes.
+ * Instances buffer the records of a game until they are appended to the log.
+ */
+public class MoveLog {
+    private static final byte[] EMPTY = new byte[0];
+
+    /**
+     * A decoded move.
+     */
+    public record Entry(MoveType type, int index) {
+    }
+
+    private byte[] bytes = EMPTY;
+    private int length;
+    private int count;
+
+    public void add(MoveType type, int index) {
+        if (length + 6 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(32, bytes.length * 2));
+        }
+        bytes[length++] = (byte) type.ordinal();
+        int value = index;
+        while ((value & ~0x7F) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+        count++;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public static List<Entry> decode(byte[] records) {
+        MoveType[] types = MoveType.values();
+        List<Entry> entries = new ArrayList<>();
+        int position = 0;
+        while (position < records.length) {
+            MoveType type = types[records[position++]];
+            int index = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = records[position++];
+                index |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            entries.add(new Entry(type, index));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,102 @@
+package com.minesweeper.metrics;
+
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameDifficulty;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the game service, tagged by difficulty ({@code EASY}, {@code MEDIUM},
+ * {@code OLYMPIC}, or {@code CUSTOM} for any other board).
+ * <p>
+ * All meters are registered up front, so recording on the move path is a map lookup and no
+ * tag allocation.
+ */
+@Component
+public class GameMetrics {
+    public static final String CUSTOM = "CUSTOM";
+
+    private final Map<String, Meters> meters = new HashMap<>();
+
+    public GameMetrics(MeterRegistry registry) {
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            meters.put(difficulty.name(), new Meters(registry, difficulty.name()));
+        }
+        meters.put(CUSTOM, new Meters(registry, CUSTOM));
+    }
+
+    public static String difficulty(Game game) {
+        return GameDifficulty.of(game.getWidth(), game.getHeight(), game.getMinesCount())
+                .map(GameDifficulty::name)
+                .orElse(CUSTOM);
+    }
+
+    /**
+     * Records the creation of a game.
+     * @param startNanos {@link System#nanoTime()} when the request started
+     */
+    public void recordCreate(Game game, long startNanos) {
+        Meters m = meters.get(difficulty(game));
+        m.create.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        m.boardSquares.record((double) game.getWidth() * game.getHeight());
+    }
+
+    /**
+     * Records a request that applied one or more moves to a game, including the wait for its lock.
+     * @param startNanos {@link System#nanoTime()} when the request started
+     */
+    public void recordTurn(Game game, int moves, long startNanos) {
+        Meters m = meters.get(difficulty(game));
+        m.turn.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        m.turnMoves.record(moves);
+    }
+
+    /**
+     * Records the number of squares opened by a reveal, the clicked square included.
+     */
+    public void recordReveal(Game game, int squares) {
+        meters.get(difficulty(game)).revealSquares.record(squares);
+    }
+
+    private static final class Meters {
+        private final Timer create;
+        private final Timer turn;
+        private final DistributionSummary turnMoves;
+        private final DistributionSummary revealSquares;
+        private final DistributionSummary boardSquares;
+
+        private Meters(MeterRegistry registry, String difficulty) {
+            create = Timer.builder("minesweeper.game.create")
+                    .description("Time to create a game")
+                    .tag("difficulty", difficulty)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            turn = Timer.builder("minesweeper.turn")
+                    .description("Time to apply a turn request, lock wait included")
+                    .tag("difficulty", difficulty)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            turnMoves = DistributionSummary.builder("minesweeper.turn.moves")
+                    .description("Moves per turn request")
+                    .tag("difficulty", difficulty)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            revealSquares = DistributionSummary.builder("minesweeper.reveal.squares")
+                    .description("Squares opened by a reveal, flood fill included")
+                    .tag("difficulty", difficulty)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            boardSquares = DistributionSummary.builder("minesweeper.board.squares")
+                    .description("Squares of created boards")
+                    .tag("difficulty", difficulty)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
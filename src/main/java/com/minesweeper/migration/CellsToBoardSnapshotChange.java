@@ -0,0 +1,96 @@
+package com.minesweeper.migration;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.model.CellState;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Liquibase task that packs the {@code cell} rows of every game without a board snapshot into
+ * the {@code game.board} column. Games are converted one at a time so memory use is bounded
+ * by the largest board.
+ */
+public class CellsToBoardSnapshotChange implements CustomTaskChange {
+    private int migratedGames;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try (PreparedStatement games = connection.prepareStatement(
+                "SELECT id, width, height FROM game WHERE board IS NULL");
+             PreparedStatement cells = connection.prepareStatement(
+                     "SELECT row, col, has_mine, revealed FROM cell WHERE game_id = ?");
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE game SET board = ? WHERE id = ?");
+             ResultSet rs = games.executeQuery()) {
+            while (rs.next()) {
+                UUID gameId = rs.getObject("id", UUID.class);
+                int width = rs.getInt("width");
+                int height = rs.getInt("height");
+                if (width <= 0 || height <= 0) {
+                    continue;
+                }
+
+                cells.setObject(1, gameId);
+                List<CellState> gameCells = readCells(cells, width, height);
+                if (gameCells.isEmpty()) {
+                    continue;
+                }
+
+                update.setBytes(1, BoardCodec.encode(Board.fromCells(width, height, gameCells)));
+                update.setObject(2, gameId);
+                update.executeUpdate();
+                migratedGames++;
+            }
+        } catch (SQLException e) {
+            throw new CustomChangeException("Failed to migrate cells to board snapshots", e);
+        }
+    }
+
+    private List<CellState> readCells(PreparedStatement cells, int width, int height) throws SQLException {
+        List<CellState> result = new ArrayList<>();
+        try (ResultSet rs = cells.executeQuery()) {
+            while (rs.next()) {
+                int row = rs.getInt("row");
+                int col = rs.getInt("col");
+                if (row < 0 || row >= height || col < 0 || col >= width) {
+                    continue;
+                }
+                result.add(new CellState(row, col, rs.getBoolean("has_mine"), rs.getBoolean("revealed"), false));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Migrated " + migratedGames + " games to board snapshots";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UuidGenerator;
 import java.util.UUID;
 
 @Entity
@@ -12,10 +13,11 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Cell {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue
+    @UuidGenerator(style = UuidGenerator.Style.TIME)
     private UUID id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id")
     private Game game;
 
@@ -23,6 +25,7 @@ public class Cell {
     private int col;
     private boolean hasMine;
     private boolean revealed;
+    private boolean flagged;
     private int surroundingMines;
 
     public Cell(Game game, int row, int col) {
@@ -0,0 +1,11 @@
+package com.minesweeper.model;
+
+/**
+ * The columns of a {@link Cell} needed to rebuild a board, read without hydrating the entity.
+ */
+public record CellState(int row, int col, boolean hasMine, boolean revealed, boolean flagged) {
+
+    public static CellState of(Cell cell) {
+        return new CellState(cell.getRow(), cell.getCol(), cell.isHasMine(), cell.isRevealed(), cell.isFlagged());
+    }
+}
@@ -1,9 +1,12 @@
 package com.minesweeper.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,10 +27,78 @@ public class Game {
     private int height;
     private int minesCount;
 
+    /**
+     * Seed of the mine layout, see {@link com.minesweeper.engine.MinePlacer}; null for games created before seeding.
+     */
+    @JsonIgnore
+    private Long seed;
+
+    /**
+     * False while a lazily created game waits for its first move; the board is generated then.
+     */
+    private boolean boardGenerated = true;
+
+    /**
+     * Linear index of the first move of a lazily generated game, kept free of mines together with its neighbourhood.
+     */
+    @JsonIgnore
+    private Integer safeIndex;
+
+    /**
+     * True if the board must be solvable from the first move without guessing; such games are always generated lazily.
+     */
+    private boolean noGuess;
+
+    /**
+     * Number of revealed squares without a mine; null until backfilled for games created before it existed.
+     */
+    private Integer revealedSafeCount;
+
+    /**
+     * Number of squares without a mine; null until backfilled for games created before it existed.
+     */
+    private Integer totalSafeCount;
+
+    /**
+     * Number of moves in the game's move log, see {@link com.minesweeper.history.GameHistory}.
+     */
+    private int moveCount;
+
+    /**
+     * Optimistic lock version, bumped by every write of the game's progress.
+     */
+    @JsonIgnore
+    @Version
+    private Long version;
+
     @Enumerated(EnumType.STRING)
     private GameState state = GameState.IN_PROGRESS;
 
-    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    /**
+     * Time of the last write of the game's progress; finished and idle games are archived some time after it.
+     */
+    @JsonIgnore
+    private Instant lastActiveAt = Instant.now();
+
+    /**
+     * True once {@link com.minesweeper.history.GameArchiver} has packed the move log and dropped the cell rows;
+     * the board then lives in {@link #board} whatever the storage.
+     */
+    @JsonIgnore
+    private boolean archived;
+
+    /**
+     * Board snapshot in {@link com.minesweeper.engine.BoardCodec} format; null for games that still use the cell table.
+     */
+    @JsonIgnore
+    @Column(name = "board")
+    private byte[] board;
+
+    /**
+     * Legacy per-square rows, only loaded when accessed; boards are read through {@link com.minesweeper.service.BoardStore}.
+     */
+    @JsonIgnore
+    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Cell> cells;
 
     public Game(User user, int width, int height, int minesCount) {
@@ -35,6 +106,8 @@ public class Game {
         this.width = width;
         this.height = height;
         this.minesCount = minesCount;
+        this.revealedSafeCount = 0;
+        this.totalSafeCount = width * height - minesCount;
         this.state = GameState.IN_PROGRESS;
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 @Getter
 @RequiredArgsConstructor
@@ -16,6 +17,16 @@ public enum GameDifficulty {
     private final int height;
     private final int mines;
 
+    /**
+     * Finds the difficulty with these dimensions and mine count.
+     * @return the difficulty, or empty for a custom game
+     */
+    public static Optional<GameDifficulty> of(int width, int height, int mines) {
+        return Arrays.stream(GameDifficulty.values())
+                .filter(d -> d.width == width && d.height == height && d.mines == mines)
+                .findFirst();
+    }
+
     public static GameDifficulty fromString(String difficulty) {
         return Arrays.stream(GameDifficulty.values())
                 .filter(d -> d.name().equalsIgnoreCase(difficulty))
@@ -0,0 +1,17 @@
+package com.minesweeper.model;
+
+/**
+ * Result of a single move within a batch of turns.
+ */
+public enum MoveOutcome {
+    /** Squares were opened. */
+    REVEALED,
+    /** A mine was opened; the game is lost. */
+    MINE,
+    FLAGGED,
+    UNFLAGGED,
+    /** The move did not change the board, e.g. revealing an open or flagged square. */
+    IGNORED,
+    /** The game had already ended on an earlier move of the batch. */
+    NOT_APPLIED
+}
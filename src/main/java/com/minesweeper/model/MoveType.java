@@ -0,0 +1,10 @@
+package com.minesweeper.model;
+
+/**
+ * A player's move. The ordinal is stored in the move log, so new types go at the end.
+ */
+public enum MoveType {
+    REVEAL, FLAG, UNFLAG,
+    /** Opens the hidden neighbours of a revealed number whose mines are all flagged. */
+    CHORD
+}
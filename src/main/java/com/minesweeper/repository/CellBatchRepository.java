@@ -0,0 +1,185 @@
+package com.minesweeper.repository;
+
+import com.minesweeper.engine.Board;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes the {@code cell} rows of a board with plain JDBC instead of one entity per square.
+ * <p>
+ * Inserts go out as JDBC batches in square order (rewritten into multi-row INSERTs by the
+ * PostgreSQL driver with {@code reWriteBatchedInserts=true}), or with {@code COPY ... FROM STDIN}
+ * when {@code minesweeper.cells.insert-mode=copy} and the database is PostgreSQL. Cell ids are
+ * time-ordered (UUID version 7 layout) and ascending within a board, so a board's rows are
+ * appended to the primary key index instead of scattered across it.
+ */
+@Repository
+public class CellBatchRepository {
+    private static final Logger log = LoggerFactory.getLogger(CellBatchRepository.class);
+
+    private static final String INSERT = "INSERT INTO cell (id, game_id, row, col, has_mine, revealed, flagged, surrounding_mines) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE cell SET revealed = ?, flagged = ?, surrounding_mines = ? "
+            + "WHERE game_id = ? AND row = ? AND col = ?";
+    private static final String DELETE_BATCH = "DELETE FROM cell WHERE id IN (SELECT id FROM cell WHERE game_id = ? LIMIT ?)";
+    private static final String COPY = "COPY cell (id, game_id, row, col, has_mine, revealed, flagged, surrounding_mines) "
+            + "FROM STDIN (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean copy;
+    private final int batchSize;
+
+    public CellBatchRepository(JdbcTemplate jdbcTemplate,
+                               @Value("${minesweeper.cells.insert-mode:batch}") String insertMode,
+                               @Value("${minesweeper.cells.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.copy = "copy".equalsIgnoreCase(insertMode);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts one row per square of the board. Must run inside the caller's transaction.
+     */
+    public void insertAll(UUID gameId, Board board) {
+        UUID[] ids = cellIds(board.size());
+        if (copy && Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) this::isPostgres))) {
+            jdbcTemplate.execute((Connection connection) -> copyIn(connection, gameId, board, ids));
+            return;
+        }
+        jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (int index = 0; index < board.size(); index++) {
+                    statement.setObject(1, ids[index]);
+                    statement.setObject(2, gameId);
+                    statement.setInt(3, board.row(index));
+                    statement.setInt(4, board.col(index));
+                    statement.setBoolean(5, board.isMine(index));
+                    statement.setBoolean(6, board.isRevealed(index));
+                    statement.setBoolean(7, board.isFlagged(index));
+                    statement.setInt(8, board.getCount(index));
+                    statement.addBatch();
+                    if ((index + 1) % batchSize == 0) {
+                        statement.executeBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Writes the revealed and flagged state of the given squares in one JDBC batch.
+     */
+    public void updateAll(UUID gameId, Board board, int[] changed) {
+        jdbcTemplate.batchUpdate(UPDATE, Arrays.stream(changed).boxed().toList(), batchSize,
+                (statement, index) -> {
+                    statement.setBoolean(1, board.isRevealed(index));
+                    statement.setBoolean(2, board.isFlagged(index));
+                    statement.setInt(3, board.getCount(index));
+                    statement.setObject(4, gameId);
+                    statement.setInt(5, board.row(index));
+                    statement.setInt(6, board.col(index));
+                });
+    }
+
+    /**
+     * Deletes at most {@code limit} rows of a game. Outside a transaction each call commits on its
+     * own, so deleting a large board holds its row locks only one batch at a time.
+     * @return the number of deleted rows; less than {@code limit} once the game has none left
+     */
+    public int deleteBatch(UUID gameId, int limit) {
+        return jdbcTemplate.update(DELETE_BATCH, gameId, limit);
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        return connection.isWrapperFor(PGConnection.class);
+    }
+
+    private Long copyIn(Connection connection, UUID gameId, Board board, UUID[] ids) throws SQLException {
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY, new CellCsvReader(gameId, board, ids));
+        } catch (IOException e) {
+            log.error("COPY of {} cells for game {} failed", board.size(), gameId, e);
+            throw new SQLException("COPY of cells failed", e);
+        }
+    }
+
+    /**
+     * Ascending UUID version 7 ids: millisecond timestamp, random bits, then the square index.
+     */
+    static UUID[] cellIds(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = System.currentTimeMillis() << 16 | 0x7000L | (random.nextInt() & 0xFFFL);
+        long leastSigBits = 0x8000000000000000L | (random.nextLong() & 0x3FFFFFFF00000000L);
+        UUID[] ids = new UUID[count];
+        for (int index = 0; index < count; index++) {
+            ids[index] = new UUID(mostSigBits, leastSigBits + index);
+        }
+        return ids;
+    }
+
+    /**
+     * Streams the rows of a board as CSV without materialising the whole text.
+     */
+    private static final class CellCsvReader extends Reader {
+        private final String gameId;
+        private final Board board;
+        private final UUID[] ids;
+        private final StringBuilder line = new StringBuilder(128);
+        private int index;
+        private int position;
+
+        private CellCsvReader(UUID gameId, Board board, UUID[] ids) {
+            this.gameId = gameId.toString();
+            this.board = board;
+            this.ids = ids;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int written = 0;
+            while (written < length) {
+                if (position == line.length()) {
+                    if (index == board.size()) {
+                        break;
+                    }
+                    nextLine();
+                }
+                int n = Math.min(length - written, line.length() - position);
+                line.getChars(position, position + n, buffer, offset + written);
+                position += n;
+                written += n;
+            }
+            return written == 0 && length > 0 ? -1 : written;
+        }
+
+        private void nextLine() {
+            line.setLength(0);
+            line.append(ids[index]).append(',').append(gameId).append(',')
+                    .append(board.row(index)).append(',').append(board.col(index)).append(',')
+                    .append(board.isMine(index)).append(',').append(board.isRevealed(index)).append(',')
+                    .append(board.isFlagged(index)).append(',').append(board.getCount(index)).append('\n');
+            position = 0;
+            index++;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
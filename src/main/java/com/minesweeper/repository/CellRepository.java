@@ -1,10 +1,56 @@
 package com.minesweeper.repository;
 
 import com.minesweeper.model.Cell;
+import com.minesweeper.model.CellState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface CellRepository extends JpaRepository<Cell, Long> {
-    List<Cell> findByGameId(UUID gameId);
-}
\ No newline at end of file
+/**
+ * Access to the legacy {@code cell} table. Lookups by game, and by game and square, are served by
+ * the {@code idx_cell_game_row_col} index. Queries filter on {@code c.game.id} explicitly: the
+ * derived {@code GameId} property path joins the game table, which keeps the planner off the index.
+ */
+public interface CellRepository extends JpaRepository<Cell, UUID> {
+    @Query("from Cell c where c.game.id = :gameId")
+    List<Cell> findByGameId(@Param("gameId") UUID gameId);
+
+    /**
+     * Checked on every flush of a game stored as cells, so it stops at the first row instead of
+     * counting the board.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM cell WHERE game_id = :gameId)", nativeQuery = true)
+    boolean existsByGameId(@Param("gameId") UUID gameId);
+
+    @Query("from Cell c where c.game.id = :gameId and c.row = :row and c.col = :col")
+    Optional<Cell> findByGameIdAndRowAndCol(@Param("gameId") UUID gameId, @Param("row") int row, @Param("col") int col);
+
+    /**
+     * Reads only the columns needed to rebuild the board of a game.
+     */
+    @Query("select new com.minesweeper.model.CellState(c.row, c.col, c.hasMine, c.revealed, c.flagged) "
+            + "from Cell c where c.game.id = :gameId")
+    List<CellState> findStatesByGameId(@Param("gameId") UUID gameId);
+
+    /**
+     * Counts the safe squares of a game and how many of them are revealed, without loading cells.
+     * The game is won when both are equal.
+     */
+    @Query("select count(c) as totalSafe, coalesce(sum(case when c.revealed = true then 1 else 0 end), 0) as revealedSafe "
+            + "from Cell c where c.game.id = :gameId and c.hasMine = false")
+    SafeCellCounts countSafeCells(@Param("gameId") UUID gameId);
+
+    interface SafeCellCounts {
+        long getTotalSafe();
+
+        long getRevealedSafe();
+
+        default boolean isWon() {
+            return getTotalSafe() > 0 && getTotalSafe() == getRevealedSafe();
+        }
+    }
+}
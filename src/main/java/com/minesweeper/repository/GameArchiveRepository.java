@@ -0,0 +1,49 @@
+package com.minesweeper.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code game_archive} rows of archived games: the first {@code move_count} moves of the log,
+ * compressed into one row, and whether the game's {@code cell} rows are gone yet.
+ */
+@Repository
+public class GameArchiveRepository {
+    private static final String INSERT = "INSERT INTO game_archive (game_id, move_count, moves, cells_deleted) VALUES (?, ?, ?, false)";
+    private static final String SELECT = "SELECT move_count, moves FROM game_archive WHERE game_id = ?";
+    private static final String SELECT_WITH_CELLS = "SELECT game_id FROM game_archive WHERE cells_deleted = false LIMIT ?";
+    private static final String MARK_CELLS_DELETED = "UPDATE game_archive SET cells_deleted = true WHERE game_id = ?";
+
+    public record Archive(int moveCount, byte[] moves) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public GameArchiveRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(UUID gameId, int moveCount, byte[] moves) {
+        jdbcTemplate.update(INSERT, gameId, moveCount, moves);
+    }
+
+    public Optional<Archive> find(UUID gameId) {
+        return jdbcTemplate.query(SELECT, (rs, rowNum) -> new Archive(rs.getInt("move_count"),
+                rs.getBytes("moves")), gameId).stream().findFirst();
+    }
+
+    /**
+     * @return archived games whose cell rows may not all be deleted yet
+     */
+    public List<UUID> findWithCells(int limit) {
+        return jdbcTemplate.queryForList(SELECT_WITH_CELLS, UUID.class, limit);
+    }
+
+    public void markCellsDeleted(UUID gameId) {
+        jdbcTemplate.update(MARK_CELLS_DELETED, gameId);
+    }
+}
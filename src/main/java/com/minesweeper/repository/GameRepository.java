@@ -1,11 +1,61 @@
 package com.minesweeper.repository;
 
 import com.minesweeper.model.Game;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * Writes the mutable part of a game with a single UPDATE, without merging the detached entity.
+     * That includes the seed, which a no-guess game replaces when its board is generated.
+     * The row is only updated while its version still matches the game's, and the version is bumped.
+     * @param game the game
+     * @return the number of updated rows; 0 if the game was changed by someone else in the meantime
+     */
+    @Modifying
+    @Query("update Game g set g.state = :#{#game.state}, g.board = :#{#game.board}, "
+            + "g.revealedSafeCount = :#{#game.revealedSafeCount}, g.totalSafeCount = :#{#game.totalSafeCount}, "
+            + "g.boardGenerated = :#{#game.boardGenerated}, g.safeIndex = :#{#game.safeIndex}, "
+            + "g.seed = :#{#game.seed}, g.noGuess = :#{#game.noGuess}, "
+            + "g.moveCount = :#{#game.moveCount}, g.lastActiveAt = :#{#game.lastActiveAt}, "
+            + "g.version = g.version + 1 "
+            + "where g.id = :#{#game.id} and g.version = :#{#game.version}")
+    int updateProgress(@Param("game") Game game);
+
+    /**
+     * Ids of games not yet archived that finished before {@code finishedBefore}, or are still in
+     * progress but untouched since {@code idleBefore}, least recently active first.
+     */
+    @Query("select g.id from Game g where g.archived = false and ("
+            + "(g.state = com.minesweeper.model.GameState.IN_PROGRESS and g.lastActiveAt < :idleBefore) or "
+            + "(g.state <> com.minesweeper.model.GameState.IN_PROGRESS and g.lastActiveAt < :finishedBefore)) "
+            + "order by g.lastActiveAt")
+    List<UUID> findArchiveCandidates(@Param("idleBefore") Instant idleBefore,
+                                     @Param("finishedBefore") Instant finishedBefore, Pageable pageable);
+
+    /**
+     * Flags a game as archived and bumps its version, so a copy loaded before is not written back.
+     * Locks the row until the end of the transaction.
+     * @return 1, or 0 if the game is already archived
+     */
+    @Modifying
+    @Query("update Game g set g.archived = true, g.version = g.version + 1 where g.id = :id and g.archived = false")
+    int markArchived(@Param("id") UUID id);
+
+    /**
+     * Writes the board snapshot alone, leaving the version as it is.
+     */
+    @Modifying
+    @Query("update Game g set g.board = :board where g.id = :id")
+    int updateBoard(@Param("id") UUID id, @Param("board") byte[] board);
+}
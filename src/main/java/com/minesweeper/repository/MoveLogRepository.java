@@ -0,0 +1,69 @@
+package com.minesweeper.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The append-only {@code game_move} log and its {@code game_snapshot} checkpoints. A log row holds
+ * the binary records of consecutive moves starting at {@code first_move}, the number of moves
+ * logged before it; a snapshot holds the board after {@code move_count} moves.
+ */
+@Repository
+public class MoveLogRepository {
+    private static final String INSERT_MOVES = "INSERT INTO game_move (game_id, first_move, move_count, moves) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO game_snapshot (game_id, move_count, board) VALUES (?, ?, ?)";
+    private static final String DELETE_MOVES = "DELETE FROM game_move WHERE game_id = ?";
+    private static final String DELETE_SNAPSHOTS = "DELETE FROM game_snapshot WHERE game_id = ?";
+    private static final String SELECT_MOVES = "SELECT first_move, move_count, moves FROM game_move "
+            + "WHERE game_id = ? AND first_move < ? AND first_move + move_count > ? ORDER BY first_move";
+    private static final String SELECT_SNAPSHOT = "SELECT move_count, board FROM game_snapshot "
+            + "WHERE game_id = ? AND move_count <= ? ORDER BY move_count DESC LIMIT 1";
+
+    public record Chunk(int firstMove, int moveCount, byte[] moves) {
+    }
+
+    public record Snapshot(int moveCount, byte[] board) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MoveLogRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(UUID gameId, int firstMove, int moveCount, byte[] moves) {
+        jdbcTemplate.update(INSERT_MOVES, gameId, firstMove, moveCount, moves);
+    }
+
+    public void saveSnapshot(UUID gameId, int moveCount, byte[] board) {
+        jdbcTemplate.update(INSERT_SNAPSHOT, gameId, moveCount, board);
+    }
+
+    /**
+     * @return the log rows overlapping moves {@code [from, to)}, in order
+     */
+    public List<Chunk> findMoves(UUID gameId, int from, int to) {
+        return jdbcTemplate.query(SELECT_MOVES, (rs, rowNum) -> new Chunk(rs.getInt("first_move"),
+                rs.getInt("move_count"), rs.getBytes("moves")), gameId, to, from);
+    }
+
+    /**
+     * @return the latest snapshot taken after at most {@code moveCount} moves
+     */
+    public Optional<Snapshot> findSnapshot(UUID gameId, int moveCount) {
+        return jdbcTemplate.query(SELECT_SNAPSHOT, (rs, rowNum) -> new Snapshot(rs.getInt("move_count"),
+                rs.getBytes("board")), gameId, moveCount).stream().findFirst();
+    }
+
+    /**
+     * Drops the log rows and snapshots of a game, once they are archived.
+     */
+    public void deleteLog(UUID gameId) {
+        jdbcTemplate.update(DELETE_MOVES, gameId);
+        jdbcTemplate.update(DELETE_SNAPSHOTS, gameId);
+    }
+}
@@ -1,9 +1,17 @@
 package com.minesweeper.repository;
 
 import com.minesweeper.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
-}
\ No newline at end of file
+
+    /**
+     * Ranks users for the leaderboard; only read once at startup, after that the leaderboard is
+     * maintained in memory.
+     */
+    List<User> findByOrderByGamesWonDescUsernameAsc(Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.minesweeper.repository;
+
+import com.minesweeper.stats.StatsDelta;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Adds coalesced increments to the game counters of users with one JDBC batch.
+ */
+@Repository
+public class UserStatsRepository {
+    private static final String UPDATE = "UPDATE users SET games_played = games_played + ?, "
+            + "games_won = games_won + ?, games_lost = games_lost + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserStatsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Must run inside the caller's transaction. Rows are updated in the order given, so callers
+     * sort by user id to lock rows in the same order as concurrent flushes of other instances.
+     */
+    public void addAll(List<Map.Entry<UUID, StatsDelta>> deltas) {
+        jdbcTemplate.batchUpdate(UPDATE, deltas, deltas.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getValue().played());
+            statement.setInt(2, entry.getValue().won());
+            statement.setInt(3, entry.getValue().lost());
+            statement.setObject(4, entry.getKey());
+        });
+    }
+}
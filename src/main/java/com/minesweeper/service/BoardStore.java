@@ -0,0 +1,42 @@
+package com.minesweeper.service;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.model.Game;
+
+
+/**
+ * Persistence strategy for the board of a game.
+ * <p>
+ * The active implementation is selected with {@code minesweeper.board.storage}:
+ * {@code snapshot} (default) keeps the whole board in a single binary column of the game row,
+ * {@code cells} keeps the legacy one-row-per-cell layout.
+ */
+public interface BoardStore {
+
+    /**
+     * Persists a freshly generated game together with its board.
+     * @param game the new game
+     * @param board the generated board
+     * @return the saved game
+     */
+    Game create(Game game, Board board);
+
+    /**
+     * Loads the board of a persisted game.
+     * @param game the game
+     * @return the board
+     */
+    Board load(Game game);
+
+    /**
+     * Persists the game after a move. Must run inside a transaction; the game may be detached.
+     * Bumps the version of the row but not of the game, which the caller bumps once the
+     * transaction has committed.
+     * @param game the game
+     * @param board the board after the move
+     * @param changed linear indices of the squares changed by the move
+     * @return the saved game
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the stored version no longer matches
+     */
+    Game save(Game game, Board board, int[] changed);
+}
@@ -1,11 +1,18 @@
 package com.minesweeper.service;
 
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.dto.HintResponse;
+import com.minesweeper.dto.MoveRequest;
+import com.minesweeper.dto.TurnResponse;
+import com.minesweeper.event.EventSink;
 import com.minesweeper.model.Game;
 import com.minesweeper.model.GameDifficulty;
 import com.minesweeper.model.User;
-import jakarta.transaction.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 public interface GameService {
 
@@ -17,6 +24,16 @@ public interface GameService {
      */
     Game createStandardGame(User user, GameDifficulty difficulty);
 
+    /**
+     * Creates a game of a predefined difficulty whose board can be won from the first move without
+     * guessing. The board is generated on the first move; if no such board is found within the
+     * difficulty's time budget, a standard board is used.
+     * @param user the user who starts the game
+     * @param difficulty the difficulty level
+     * @return the created game
+     */
+    Game createNoGuessGame(User user, GameDifficulty difficulty);
+
     /**
      * Creates a new custom game with the given parameters for a specific user.
      * @param user the user who starts the game
@@ -35,15 +52,78 @@ public interface GameService {
     Game getGame(UUID gameId);
 
     /**
-     * Processes the player's move.
+     * Returns the API view of a game.
+     * @param gameId the game identifier
+     * @param includeBoard true to include the dense {@link com.minesweeper.engine.BoardGrid} encoding of the board
+     * @return the game view or null if the game is not found
+     */
+    GameResponse getGameView(UUID gameId, boolean includeBoard);
+
+    /**
+     * Reveals one square, as a single-move {@link #makeMoves} batch. The move is applied to the
+     * cached game and written to the database asynchronously, or immediately when it ends the game.
      * @param user the user making the move
      * @param gameId the game identifier
      * @param row the row of the move
      * @param col the column of the move
      * @return the updated Game object
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the game was changed
+     * elsewhere, so that the finishing move or moves written in the background were not saved
      */
-    @Transactional
     Game makeMove(User user, UUID gameId, int row, int col);
+
+    /**
+     * Applies an ordered list of moves to one game with a single load and a single write.
+     * Moves after the one that ends the game are not applied. A chord opens every square its
+     * number allows in one move and reports them in the same delta.
+     * @param user the user making the moves
+     * @param gameId the game identifier
+     * @param moves the moves in the order they are played
+     * @return the game state, one result per move and the squares changed by the batch
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the game was changed
+     * elsewhere, so that the finishing move or moves written in the background were not saved
+     */
+    TurnResponse makeMoves(User user, UUID gameId, List<MoveRequest> moves);
+
+    /**
+     * Suggests the player's next move from what the player can see of the board.
+     * @param user the user playing the game
+     * @param gameId the game identifier
+     * @return a proven safe square, or the square least likely to hold a mine
+     */
+    HintResponse getHint(User user, UUID gameId);
+
+    /**
+     * Checks whether a game can be won from its current state without guessing.
+     * @param gameId the game identifier
+     * @param row the row of the square opened first, if it is not open yet
+     * @param col the column of the square opened first
+     * @return true if proven safe squares alone lead to a win
+     */
+    boolean isSolvableWithoutGuessing(UUID gameId, int row, int col);
+
+    /**
+     * Writes and drops the cached games the selector picks, e.g. games another node now owns.
+     * @param selector selects games by id
+     * @return the ids of the dropped games
+     */
+    List<UUID> releaseGames(Predicate<UUID> selector);
+
+    /**
+     * Loads games into the cache ahead of their next move. Games that do not exist are skipped.
+     * @param gameIds the game identifiers
+     */
+    void preloadGames(Collection<UUID> gameIds);
+
+    /**
+     * Streams a game's events to the sink: a snapshot of the board, then the delta of every move
+     * until the game ends.
+     * @param gameId the game identifier
+     * @param sink receives the events
+     * @return a handle that ends the subscription, or null if the game is not found
+     */
+    Runnable subscribe(UUID gameId, EventSink sink);
+
     /**
      * Finds a game by its identifier.
      * @param id the game identifier
@@ -0,0 +1,84 @@
+package com.minesweeper.service.impl;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.CellState;
+import com.minesweeper.model.Game;
+import com.minesweeper.repository.CellBatchRepository;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.service.BoardStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Legacy layout: one {@code cell} row per square, written in JDBC batches by {@link CellBatchRepository}.
+ * <p>
+ * Archived games have no cell rows left; their board stays in the snapshot column of the game row.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "minesweeper.board.storage", havingValue = "cells")
+public class CellBoardStore implements BoardStore {
+    private static final Logger log = LoggerFactory.getLogger(CellBoardStore.class);
+
+    private final GameRepository gameRepository;
+    private final CellRepository cellRepository;
+    private final CellBatchRepository cellBatchRepository;
+    private final MinePlacer minePlacer;
+
+    @Override
+    public Game create(Game game, Board board) {
+        game = gameRepository.save(game);
+        insertCells(game, board);
+        return game;
+    }
+
+    private void insertCells(Game game, Board board) {
+        cellBatchRepository.insertAll(game.getId(), board);
+        log.info("LOG: Generated {} cells for game ID: {}", board.size(), game.getId());
+    }
+
+    @Override
+    public Board load(Game game) {
+        if (game.isArchived()) {
+            return BoardCodec.decode(game.getBoard(), () -> minePlacer.generate(game));
+        }
+        List<CellState> cells = cellRepository.findStatesByGameId(game.getId());
+        if (cells.isEmpty()) {
+            throw new IllegalStateException("No cells found for this game.");
+        }
+        return Board.fromCells(game.getWidth(), game.getHeight(), cells);
+    }
+
+    @Override
+    public Game save(Game game, Board board, int[] changed) {
+        if (game.isArchived()) {
+            game.setBoard(BoardCodec.encode(board, game.getSeed() == null));
+        }
+        game.setLastActiveAt(Instant.now());
+        // The version is checked first: the caller commits despite a conflict, so the cells of the
+        // losing writer must never be written
+        if (gameRepository.updateProgress(game) == 0) {
+            throw new OptimisticLockingFailureException("Game " + game.getId() + " was modified concurrently.");
+        }
+        if (game.isArchived()) {
+            return game;
+        }
+        if (!cellRepository.existsByGameId(game.getId())) {
+            // First move of a lazily generated game
+            insertCells(game, board);
+        } else if (changed.length > 0) {
+            cellBatchRepository.updateAll(game.getId(), board, changed);
+        }
+        return game;
+    }
+}
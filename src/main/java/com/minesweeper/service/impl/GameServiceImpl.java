@@ -1,22 +1,46 @@
 package com.minesweeper.service.impl;
 
-import com.minesweeper.dto.TurnRequest;
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.cache.LiveGame;
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.dto.BoardDelta;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.dto.HintResponse;
+import com.minesweeper.dto.MoveRequest;
+import com.minesweeper.dto.MoveResult;
+import com.minesweeper.dto.TurnResponse;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardGrid;
+import com.minesweeper.engine.BoardPool;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.event.EventSink;
+import com.minesweeper.event.GameEventBus;
+import com.minesweeper.metrics.GameMetrics;
 import com.minesweeper.model.*;
-import com.minesweeper.repository.CellRepository;
 import com.minesweeper.repository.GameRepository;
 import com.minesweeper.repository.UserRepository;
+import com.minesweeper.service.BoardStore;
 import com.minesweeper.service.GameService;
 import com.minesweeper.service.UserService;
+import com.minesweeper.solver.Hint;
+import com.minesweeper.solver.NoGuessGenerator;
+import com.minesweeper.solver.Solver;
+import com.minesweeper.stats.UserStatsAggregator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
 
 @Service
 public class GameServiceImpl implements GameService {
@@ -25,187 +49,487 @@ public class GameServiceImpl implements GameService {
     private final UserService userService;
 
     private final GameRepository gameRepository;
-    private final CellRepository cellRepository;
     private final UserRepository userRepository;
-    
-    public GameServiceImpl(UserService userService, GameRepository gameRepository, CellRepository cellRepository, UserRepository userRepository) {
+    private final BoardStore boardStore;
+    private final MinePlacer minePlacer;
+    private final BoardPool boardPool;
+    private final GameCache gameCache;
+    private final GameLocks gameLocks;
+    private final GameMetrics gameMetrics;
+    private final GameEventBus eventBus;
+    private final UserStatsAggregator userStats;
+    private final Solver solver;
+    private final NoGuessGenerator noGuessGenerator;
+    private final ClusterMembership cluster;
+    private final boolean lazyGeneration;
+
+    public GameServiceImpl(UserService userService, GameRepository gameRepository, UserRepository userRepository,
+                           BoardStore boardStore, MinePlacer minePlacer, BoardPool boardPool, GameCache gameCache,
+                           GameLocks gameLocks,
+                           GameMetrics gameMetrics, GameEventBus eventBus, UserStatsAggregator userStats, Solver solver,
+                           NoGuessGenerator noGuessGenerator, ClusterMembership cluster,
+                           @Value("${minesweeper.board.lazy-generation:true}") boolean lazyGeneration) {
         this.userService = userService;
         this.gameRepository = gameRepository;
-        this.cellRepository = cellRepository;
         this.userRepository = userRepository;
+        this.boardStore = boardStore;
+        this.minePlacer = minePlacer;
+        this.boardPool = boardPool;
+        this.gameCache = gameCache;
+        this.gameLocks = gameLocks;
+        this.gameMetrics = gameMetrics;
+        this.eventBus = eventBus;
+        this.userStats = userStats;
+        this.solver = solver;
+        this.noGuessGenerator = noGuessGenerator;
+        this.cluster = cluster;
+        this.lazyGeneration = lazyGeneration;
+        gameCache.onFinishedWritten(game -> userStats.gameFinished(game.getUser(), game.getState()));
     }
 
     @Override
     @Transactional
     public Game createStandardGame(User user, GameDifficulty difficulty) {
+        long start = System.nanoTime();
         Game game = new Game(user, difficulty.getWidth(), difficulty.getHeight(), difficulty.getMines());
-        game = gameRepository.save(game);
-        generateCells(game);
-        placeMines(game);
-        return gameRepository.save(game);
+        return createGame(game, difficulty, start);
     }
 
 
+    @Override
+    @Transactional
+    public Game createNoGuessGame(User user, GameDifficulty difficulty) {
+        long start = System.nanoTime();
+        Game game = new Game(user, difficulty.getWidth(), difficulty.getHeight(), difficulty.getMines());
+        game.setNoGuess(true);
+        return createGame(game, difficulty, start);
+    }
+
     @Override
     @Transactional
     public Game createCustomGame(User user, int width, int height, int minesCount) {
+        long start = System.nanoTime();
         Game game = new Game(user, width, height, minesCount);
-        game = gameRepository.save(game);
-        generateCells(game);
-        placeMines(game);
-        return gameRepository.save(game);
+        return createGame(game, null, start);
     }
 
     @Override
     public Game getGame(UUID gameId) {
-        return gameRepository.findById(gameId).orElse(null);
+        return findGameById(gameId);
     }
 
     @Override
     public Game findGameById(UUID id) {
+        LiveGame liveGame = gameCache.getIfCached(id);
+        if (liveGame != null) {
+            return liveGame.getGame();
+        }
         return gameRepository.findById(id).orElse(null);
     }
 
     @Override
-    @Transactional
-    public Game makeMove(User user, UUID gameId, int row, int col) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalStateException("Game not found or already finished."));
-        log.info("LOG: Found game with ID: {}, status: {}", game.getId(), game.getState());
+    public GameResponse getGameView(UUID gameId, boolean includeBoard) {
+        LiveGame liveGame = gameCache.getIfCached(gameId);
+        if (liveGame != null) {
+            liveGame.lock();
+            try {
+                Game game = liveGame.getGame();
+                return GameResponse.of(game, includeBoard ? boardGrid(game, liveGame.getBoard()) : null);
+            } finally {
+                liveGame.unlock();
+            }
+        }
 
-        if (game.getUser() == null || !Objects.equals(game.getUser().getId(), user.getId())) {
-            throw new IllegalStateException("User is not allowed to play this game.");
+        Game game = gameRepository.findById(gameId).orElse(null);
+        if (game == null || !includeBoard) {
+            return game != null ? GameResponse.of(game) : null;
         }
+        Board board = game.isBoardGenerated() ? loadBoard(game) : null;
+        return GameResponse.of(game, boardGrid(game, board));
+    }
 
-        if (game.getState() != GameState.IN_PROGRESS) {
-            throw new IllegalStateException("Game is already finished.");
+    @Override
+    public Game makeMove(User user, UUID gameId, int row, int col) {
+        long start = System.nanoTime();
+        List<MoveRequest> moves = List.of(new MoveRequest(MoveType.REVEAL, row, col));
+        prepareNoGuessBoard(user, gameId, moves);
+        return gameLocks.withLock(gameId, () -> {
+            applyMoves(user, gameId, moves, start);
+            return findGameById(gameId);
+        });
+    }
+
+    @Override
+    public TurnResponse makeMoves(User user, UUID gameId, List<MoveRequest> moves) {
+        long start = System.nanoTime();
+        prepareNoGuessBoard(user, gameId, moves);
+        return gameLocks.withLock(gameId, () -> applyMoves(user, gameId, moves, start));
+    }
+
+    @Override
+    public HintResponse getHint(User user, UUID gameId) {
+        // Loaded under the game's lock, so a miss never caches a second copy beside one a move is changing
+        LiveGame liveGame = gameLocks.withLock(gameId, () -> loadForPlayer(user, gameId));
+        Game game = liveGame.getGame();
+        Board board;
+        liveGame.lock();
+        try {
+            checkInProgress(game);
+            // The solver works on a copy, so the game is not locked while it runs
+            board = liveGame.getBoard() != null ? liveGame.getBoard().copy() : null;
+        } finally {
+            liveGame.unlock();
+        }
+        if (board == null) {
+            // A lazily generated board keeps the first square and its neighbours free of mines
+            return new HintResponse(gameId, game.getHeight() / 2, game.getWidth() / 2, Hint.Kind.SAFE, 0);
         }
+        Hint hint = solver.hint(board);
+        if (hint == null) {
+            throw new IllegalStateException("No square left to open.");
+        }
+        log.debug("LOG: Hint for game {}: {} at ({}, {})", gameId, hint.kind(), board.row(hint.index()), board.col(hint.index()));
+        return new HintResponse(gameId, board.row(hint.index()), board.col(hint.index()), hint.kind(), hint.mineProbability());
+    }
 
-        List<Cell> cells = cellRepository.findByGameId(gameId);
-        if (cells.isEmpty()) {
-            throw new IllegalStateException("No cells found for this game.");
+    @Override
+    public boolean isSolvableWithoutGuessing(UUID gameId, int row, int col) {
+        LiveGame liveGame = gameLocks.withLock(gameId, () -> gameCache.get(gameId, this::loadLiveGame));
+        Game game = liveGame.getGame();
+        int start = squareIndex(game, row, col);
+        Board board;
+        liveGame.lock();
+        try {
+            if (liveGame.getBoard() == null) {
+                throw new IllegalStateException("The board of game " + gameId + " is not generated yet.");
+            }
+            board = liveGame.getBoard().copy();
+        } finally {
+            liveGame.unlock();
         }
+        return solver.isSolvable(board, start);
+    }
 
-        Cell cell = cells.stream()
-                .filter(c -> c.getRow() == row && c.getCol() == col)
-                .findFirst()
-                .orElseThrow(() -> new IllegalStateException("Cell not found."));
+    @Override
+    public List<UUID> releaseGames(Predicate<UUID> selector) {
+        List<UUID> released = new ArrayList<>();
+        for (UUID gameId : gameCache.cachedGameIds()) {
+            if (!selector.test(gameId)) {
+                continue;
+            }
+            try {
+                // Under the game's lock, so a move waiting for it loads the written snapshot
+                gameLocks.withLock(gameId, () -> {
+                    LiveGame liveGame = gameCache.getIfCached(gameId);
+                    if (liveGame != null) {
+                        gameCache.release(liveGame);
+                    }
+                    return null;
+                });
+                released.add(gameId);
+            } catch (RuntimeException e) {
+                log.error("Failed to release game {}, keeping it in memory", gameId, e);
+            }
+        }
+        return released;
+    }
 
-        if (cell.isRevealed()) {
-            log.info("LOG: Cell ({}, {}) is already revealed. Ignoring move.", row, col);
-            return game;
+    @Override
+    public void preloadGames(Collection<UUID> gameIds) {
+        for (UUID gameId : gameIds) {
+            try {
+                gameLocks.withLock(gameId, () -> gameCache.get(gameId, this::loadLiveGame));
+            } catch (IllegalStateException e) {
+                log.debug("LOG: Skipping preload of game {}: {}", gameId, e.getMessage());
+            }
         }
+        log.debug("LOG: Preloaded {} games", gameIds.size());
+    }
 
-        cell.setRevealed(true);
-        cellRepository.save(cell);
+    @Override
+    public Runnable subscribe(UUID gameId, EventSink sink) {
+        // Moves publish while holding the game's lock, so the snapshot and the feed line up
+        return gameLocks.withLock(gameId, () -> {
+            GameResponse snapshot = getGameView(gameId, true);
+            return snapshot != null ? eventBus.subscribe(gameId, sink, snapshot) : null;
+        });
+    }
+
+    /**
+     * Applies the moves in order against the loaded board and stops at the first terminal state.
+     * All moves are validated first, so a malformed batch leaves the game untouched; the batch is
+     * persisted as one write.
+     */
+    private TurnResponse applyMoves(User user, UUID gameId, List<MoveRequest> moves, long start) {
+        LiveGame liveGame = loadForPlayer(user, gameId);
+        Game game = liveGame.getGame();
+
+        liveGame.lock();
+        try {
+            checkInProgress(game);
+            int[] indices = new int[moves.size()];
+            for (int i = 0; i < indices.length; i++) {
+                MoveRequest move = moves.get(i);
+                if (move == null || move.getType() == null) {
+                    throw new IllegalStateException("Move " + i + " has no type.");
+                }
+                indices[i] = squareIndex(game, move.getRow(), move.getCol());
+            }
 
-        if (cell.isHasMine()) {
-            game.setState(GameState.LOST);
-            gameRepository.save(game);
-            log.info("LOG: Player hit a mine at ({}, {}). Game over!", row, col);
-            return game;
+            List<MoveResult> results = new ArrayList<>(moves.size());
+            BitSet changed = new BitSet();
+            for (int i = 0; i < indices.length; i++) {
+                MoveRequest move = moves.get(i);
+                MoveOutcome outcome = game.getState() == GameState.IN_PROGRESS
+                        ? apply(liveGame, move.getType(), indices[i], changed)
+                        : MoveOutcome.NOT_APPLIED;
+                results.add(new MoveResult(move.getType(), move.getRow(), move.getCol(), outcome));
+            }
+            commit(liveGame, changed);
+            log.debug("LOG: Applied {} moves to game {}, {} squares changed", moves.size(), game.getId(), changed.cardinality());
+            BoardDelta delta = BoardDelta.of(liveGame.getBoard(), changed, game.getState() != GameState.IN_PROGRESS);
+            if (!changed.isEmpty()) {
+                eventBus.publishMove(game, delta);
+            }
+            TurnResponse response = new TurnResponse(game.getId(), game.getState(), game.getRevealedSafeCount(),
+                    game.getTotalSafeCount(), results, delta);
+            gameMetrics.recordTurn(game, moves.size(), start);
+            return response;
+        } finally {
+            liveGame.unlock();
         }
+    }
 
-        if (cell.getSurroundingMines() == 0) {
-            revealAdjacentCells(game, row, col);
+    /**
+     * Generates the board of a no-guess game before its first reveal, searching for the seed
+     * without the game's locks, as the search can take the difficulty's whole budget. The game is
+     * only loaded and changed under its lock, so a load never races a move on an evicted copy. If
+     * another request generates the board meanwhile, the seed found here is discarded.
+     */
+    private void prepareNoGuessBoard(User user, UUID gameId, List<MoveRequest> moves) {
+        // Moves before the first reveal are ignored on a board that is not generated yet
+        MoveRequest reveal = moves == null ? null : moves.stream()
+                .filter(move -> move != null && move.getType() == MoveType.REVEAL)
+                .findFirst().orElse(null);
+        if (reveal == null) {
+            return;
         }
+        Game game = gameLocks.withLock(gameId, () -> {
+            LiveGame liveGame = loadForPlayer(user, gameId);
+            return liveGame.getBoard() == null ? liveGame.getGame() : null;
+        });
+        if (game == null || !game.isNoGuess() || game.getState() != GameState.IN_PROGRESS) {
+            return;
+        }
+        int safeIndex = squareIndex(game, reveal.getRow(), reveal.getCol());
+        OptionalLong seed = findNoGuessSeed(game, safeIndex);
+        gameLocks.withLock(gameId, () -> {
+            LiveGame liveGame = loadForPlayer(user, gameId);
+            liveGame.lock();
+            try {
+                if (liveGame.getBoard() == null) {
+                    liveGame.setBoard(generateBoard(liveGame.getGame(), safeIndex, seed));
+                }
+            } finally {
+                liveGame.unlock();
+            }
+            return null;
+        });
+    }
 
-        if (checkWin(game)) {
-            game.setState(GameState.WON);
-            gameRepository.save(game);
-            log.info("LOG: Game {} won! All safe cells revealed.", game.getId());
+    private LiveGame loadForPlayer(User user, UUID gameId) {
+        if (gameCache.clearConflict(gameId)) {
+            throw new OptimisticLockingFailureException("Game " + gameId + " was modified concurrently; its latest moves were not saved.");
         }
+        LiveGame liveGame = gameCache.get(gameId, this::loadLiveGame);
+        Game game = liveGame.getGame();
+        log.debug("LOG: Found game with ID: {}, status: {}", game.getId(), game.getState());
 
-        log.info("LOG: Saved game with ID: {}, status: {}", game.getId(), game.getState());
-        return game;
+        if (game.getUser() == null || !Objects.equals(game.getUser().getId(), user.getId())) {
+            throw new IllegalStateException("User is not allowed to play this game.");
+        }
+        return liveGame;
     }
 
-    private void placeMines(Game game) {
-        List<Cell> cells = cellRepository.findByGameId(game.getId());
-        log.info("LOG: Found {} cells for game ID: {}", cells.size(), game.getId());
-
-        if (cells.isEmpty()) {
-            throw new IllegalStateException("Cannot place mines: no cells available in the game.");
+    private void checkInProgress(Game game) {
+        if (game.getState() != GameState.IN_PROGRESS) {
+            throw new IllegalStateException("Game is already finished.");
         }
+    }
 
-        Random rand = new Random();
-        int placedMines = 0;
+    private int squareIndex(Game game, int row, int col) {
+        if (row < 0 || row >= game.getHeight() || col < 0 || col >= game.getWidth()) {
+            throw new IllegalStateException("Cell not found.");
+        }
+        return row * game.getWidth() + col;
+    }
 
-        while (placedMines < game.getMinesCount()) {
-            Cell cell = cells.get(rand.nextInt(cells.size()));
-            if (!cell.isHasMine()) {
-                cell.setHasMine(true);
-                placedMines++;
-                cellRepository.save(cell);
+    /**
+     * Applies one move to the live game, recording the squares it changes.
+     */
+    private MoveOutcome apply(LiveGame liveGame, MoveType type, int index, BitSet changed) {
+        Game game = liveGame.getGame();
+        if (liveGame.getBoard() == null) {
+            if (type != MoveType.REVEAL) {
+                // Flags before the first reveal would pin the layout to a square the player never opened
+                return MoveOutcome.IGNORED;
+            }
+            liveGame.setBoard(generateBoard(game, index));
+        }
+        Board board = liveGame.getBoard();
+        int revealedBefore = board.getRevealedSafeCount();
+        MoveOutcome outcome = Moves.apply(board, type, index, changed);
+        switch (outcome) {
+            case MINE -> {
+                // A chord may open safe squares before the mine
+                game.setRevealedSafeCount(board.getRevealedSafeCount());
+                gameMetrics.recordReveal(game, board.getRevealedSafeCount() - revealedBefore);
+                game.setState(GameState.LOST);
+                log.info("LOG: Player hit a mine at ({}, {}). Game over!", board.row(index), board.col(index));
             }
+            case REVEALED -> {
+                game.setRevealedSafeCount(board.getRevealedSafeCount());
+                gameMetrics.recordReveal(game, board.getRevealedSafeCount() - revealedBefore);
+                if (checkWin(game)) {
+                    game.setState(GameState.WON);
+                    log.info("LOG: Game {} won! All safe cells revealed.", game.getId());
+                }
+            }
+            case IGNORED -> log.debug("LOG: Move {} on ({}, {}) changed nothing. Ignoring move.",
+                    type, board.row(index), board.col(index));
+            default -> {
+            }
+        }
+        if (outcome != MoveOutcome.IGNORED) {
+            liveGame.logMove(type, index);
         }
+        return outcome;
     }
 
-    private boolean checkWin(Game game) {
-        if (game.getState() == GameState.LOST) {
-            return false;
+    /**
+     * Marks the changed squares for the next flush, or writes the game at once if it has ended; the
+     * cache counts it for the player once the write has committed. A conflicting write propagates,
+     * so the player learns that the finishing move was not saved. Any other failure leaves the game
+     * to the scheduled flush, like every other move.
+     */
+    private void commit(LiveGame liveGame, BitSet changed) {
+        if (changed.isEmpty()) {
+            return;
         }
+        gameCache.markDirty(liveGame, changed.stream().toArray());
+        Game game = liveGame.getGame();
+        if (game.getState() != GameState.IN_PROGRESS) {
+            try {
+                gameCache.flush(liveGame);
+            } catch (OptimisticLockingFailureException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("Failed to write finished game {}, retrying on the next flush", game.getId(), e);
+            }
+        }
+    }
 
-        long revealedSafeCells = cellRepository.findByGameId(game.getId()).stream()
-                .filter(cell -> !cell.isHasMine() && cell.isRevealed())
-                .count();
-        long totalSafeCells = cellRepository.findByGameId(game.getId()).stream()
-                .filter(cell -> !cell.isHasMine())
-                .count();
-
-        log.info("LOG: Checking win condition for game {} - Revealed: {}, Total: {}",
-                game.getId(), revealedSafeCells, totalSafeCells);
+    private LiveGame loadLiveGame(UUID gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new IllegalStateException("Game not found or already finished."));
+        if (!game.isBoardGenerated()) {
+            return new LiveGame(game, null);
+        }
 
-        return revealedSafeCells == totalSafeCells;
+        byte[] storedBoard = game.getBoard();
+        Integer storedRevealedSafeCount = game.getRevealedSafeCount();
+        LiveGame liveGame = new LiveGame(game, loadBoard(game));
+        // Legacy games are converted to a snapshot and backfilled while loading; persist that too
+        if (game.getBoard() != storedBoard || !Objects.equals(game.getRevealedSafeCount(), storedRevealedSafeCount)) {
+            liveGame.markDirty();
+        }
+        return liveGame;
     }
 
-    private void generateCells(Game game) {
-        for (int row = 0; row < game.getHeight(); row++) {
-            for (int col = 0; col < game.getWidth(); col++) {
-                Cell cell = new Cell(game, row, col);
-                cell.setHasMine(false);
-                cell.setRevealed(false);
-                cell.setSurroundingMines(0);
-                cellRepository.save(cell);
+    private Game createGame(Game game, GameDifficulty difficulty, long start) {
+        if (game.getWidth() <= 0 || game.getHeight() <= 0 || (long) game.getWidth() * game.getHeight() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid board size: " + game.getWidth() + "x" + game.getHeight());
+        }
+        if (game.getMinesCount() < 0 || game.getMinesCount() >= game.getWidth() * game.getHeight()) {
+            throw new IllegalArgumentException("Cannot place " + game.getMinesCount() + " mines on a "
+                    + game.getWidth() + "x" + game.getHeight() + " board.");
+        }
+        if (lazyGeneration || game.isNoGuess()) {
+            // Only dimensions and seed are stored; the board is generated around the first move
+            game.setBoardGenerated(false);
+            game.setSeed(ThreadLocalRandom.current().nextLong());
+            game = gameRepository.save(game);
+            if (cluster.isLocal(game.getId())) {
+                gameCache.put(new LiveGame(game, null));
+            }
+        } else {
+            BoardPool.PooledBoard pooled = difficulty != null ? boardPool.claim(difficulty) : null;
+            Board board;
+            if (pooled != null) {
+                game.setSeed(pooled.seed());
+                board = pooled.board();
+            } else {
+                game.setSeed(ThreadLocalRandom.current().nextLong());
+                board = minePlacer.generate(game);
+            }
+            game = boardStore.create(game, board);
+            // Only the owner holds a game in memory; another node would serve a stale copy once it owns it
+            if (cluster.isLocal(game.getId())) {
+                gameCache.put(new LiveGame(game, board));
             }
         }
-        log.info("LOG: Generated {} cells for game ID: {}", game.getWidth() * game.getHeight(), game.getId());
+        userStats.gameCreated(game.getUser());
+        gameMetrics.recordCreate(game, start);
+        return game;
     }
 
-    private void revealAdjacentCells(Game game, int row, int col) {
-        List<Cell> cells = cellRepository.findByGameId(game.getId());
-
-        // Создаем Map для быстрого доступа к клеткам по координатам
-        Map<String, Cell> cellMap = cells.stream()
-                .collect(Collectors.toMap(cell -> cell.getRow() + "," + cell.getCol(), cell -> cell));
-
-        int[] dx = {-1, -1, -1, 0, 0, 1, 1, 1};
-        int[] dy = {-1, 0, 1, -1, 1, -1, 0, 1};
+    /**
+     * Generates the board of a lazily created game; it is persisted with the first move.
+     */
+    private Board generateBoard(Game game, int safeIndex) {
+        return generateBoard(game, safeIndex, game.isNoGuess() ? findNoGuessSeed(game, safeIndex) : OptionalLong.empty());
+    }
 
-        Queue<Cell> queue = new LinkedList<>();
-        queue.add(cellMap.get(row + "," + col));
+    private Board generateBoard(Game game, int safeIndex, OptionalLong noGuessSeed) {
+        game.setSafeIndex(safeIndex);
+        game.setBoardGenerated(true);
+        // Without a solvable seed in time the game keeps its random seed, a standard board
+        noGuessSeed.ifPresent(game::setSeed);
+        log.info("LOG: Generated board for game {} around first move {}", game.getId(), safeIndex);
+        return minePlacer.generate(game);
+    }
 
-        while (!queue.isEmpty()) {
-            Cell current = queue.poll();
-            if (current == null || current.isRevealed() || current.isHasMine()) {
-                continue;
-            }
+    private OptionalLong findNoGuessSeed(Game game, int safeIndex) {
+        return GameDifficulty.of(game.getWidth(), game.getHeight(), game.getMinesCount())
+                .map(difficulty -> noGuessGenerator.findSeed(difficulty, safeIndex))
+                .orElse(OptionalLong.empty());
+    }
 
-            current.setRevealed(true);
+    private Board loadBoard(Game game) {
+        Board board = boardStore.load(game);
+        if (game.getRevealedSafeCount() == null || game.getTotalSafeCount() == null) {
+            log.info("LOG: Backfilling safe cell counters for game {}", game.getId());
+            game.setRevealedSafeCount(board.getRevealedSafeCount());
+            game.setTotalSafeCount(board.getTotalSafeCount());
+        }
+        return board;
+    }
 
-            if (current.getSurroundingMines() == 0) {
-                for (int i = 0; i < 8; i++) {
-                    int newRow = current.getRow() + dx[i];
-                    int newCol = current.getCol() + dy[i];
-                    String key = newRow + "," + newCol;
+    private byte[] boardGrid(Game game, Board board) {
+        if (board == null) {
+            return BoardGrid.hidden(game.getWidth() * game.getHeight());
+        }
+        return BoardGrid.encode(board, game.getState() != GameState.IN_PROGRESS);
+    }
 
-                    if (cellMap.containsKey(key) && !cellMap.get(key).isRevealed()) {
-                        queue.add(cellMap.get(key));
-                    }
-                }
-            }
+    private boolean checkWin(Game game) {
+        if (game.getState() == GameState.LOST) {
+            return false;
         }
 
-        cellRepository.saveAll(cellMap.values());
+        log.debug("LOG: Checking win condition for game {} - Revealed: {}, Total: {}",
+                game.getId(), game.getRevealedSafeCount(), game.getTotalSafeCount());
+
+        return game.getRevealedSafeCount().equals(game.getTotalSafeCount());
     }
-}
\ No newline at end of file
+}
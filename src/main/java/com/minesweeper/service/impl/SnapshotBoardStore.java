@@ -0,0 +1,74 @@
+package com.minesweeper.service.impl;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.CellState;
+import com.minesweeper.model.Game;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.service.BoardStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stores the whole board as one {@link BoardCodec} snapshot in the game row, so creating or
+ * updating a game is a single row write regardless of the board size.
+ * <p>
+ * Seeded games are stored without their mine plane; the mines are regenerated from the seed.
+ * Games that were created with the per-cell layout and not yet migrated are converted on
+ * first load.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "minesweeper.board.storage", havingValue = "snapshot", matchIfMissing = true)
+public class SnapshotBoardStore implements BoardStore {
+    private static final Logger log = LoggerFactory.getLogger(SnapshotBoardStore.class);
+
+    private final GameRepository gameRepository;
+    private final CellRepository cellRepository;
+    private final MinePlacer minePlacer;
+
+    @Override
+    public Game create(Game game, Board board) {
+        game.setBoard(encode(game, board));
+        return gameRepository.save(game);
+    }
+
+    @Override
+    public Board load(Game game) {
+        if (game.getBoard() != null) {
+            return BoardCodec.decode(game.getBoard(), () -> minePlacer.generate(game));
+        }
+
+        List<CellState> cells = cellRepository.findStatesByGameId(game.getId());
+        if (cells.isEmpty()) {
+            throw new IllegalStateException("No cells found for this game.");
+        }
+        log.info("LOG: Converting {} legacy cells of game {} to a board snapshot", cells.size(), game.getId());
+        Board board = Board.fromCells(game.getWidth(), game.getHeight(), cells);
+        game.setBoard(encode(game, board));
+        return board;
+    }
+
+    @Override
+    public Game save(Game game, Board board, int[] changed) {
+        game.setBoard(encode(game, board));
+        game.setLastActiveAt(Instant.now());
+        if (gameRepository.updateProgress(game) == 0) {
+            throw new OptimisticLockingFailureException("Game " + game.getId() + " was modified concurrently.");
+        }
+        return game;
+    }
+
+    private byte[] encode(Game game, Board board) {
+        return BoardCodec.encode(board, game.getSeed() == null);
+    }
+}
@@ -0,0 +1,19 @@
+package com.minesweeper.solver;
+
+import java.util.BitSet;
+
+/**
+ * What the player's view of a board implies about its hidden squares.
+ * @param safe hidden squares that cannot hold a mine
+ * @param mines hidden squares that must hold a mine
+ * @param probabilities the mine probability of every square, {@code NaN} for revealed squares;
+ *                      empty if it was not needed and not computed
+ * @param exact false if a frontier component exceeded the search budget and the probabilities
+ *              of its squares are estimated as if they were unconstrained
+ */
+public record Analysis(BitSet safe, BitSet mines, double[] probabilities, boolean exact) {
+
+    public double probability(int index) {
+        return probabilities[index];
+    }
+}
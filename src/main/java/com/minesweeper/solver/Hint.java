@@ -0,0 +1,17 @@
+package com.minesweeper.solver;
+
+/**
+ * The square the solver suggests opening next.
+ * @param index the linear index of the square
+ * @param kind whether the square is proven safe or the least risky guess
+ * @param mineProbability the chance that the square holds a mine
+ */
+public record Hint(int index, Kind kind, double mineProbability) {
+
+    public enum Kind {
+        /** No mine layout consistent with the board puts a mine here. */
+        SAFE,
+        /** No square is proven safe; this one has the lowest mine probability. */
+        GUESS
+    }
+}
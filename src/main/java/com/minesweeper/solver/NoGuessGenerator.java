@@ -0,0 +1,185 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.GameDifficulty;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds seeds of boards that can be won from the first square without guessing.
+ * <p>
+ * Random seeds are tried by one search per thread of a dedicated executor, each generating a
+ * board around the first square and playing it with the {@link Solver}. The first seed to pass
+ * wins and {@link ExecutorService#invokeAny} cancels the other searches, which stop before their
+ * next candidate. A search that outlasts the difficulty's time budget is abandoned, and the caller
+ * falls back to a standard board.
+ * <p>
+ * The executor has threads for {@code maxSearches} boards at once, so a search never waits for
+ * another one's threads and its budget is spent searching. A request beyond that falls back at
+ * once instead of queueing.
+ */
+public class NoGuessGenerator implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(NoGuessGenerator.class);
+
+    private record Meters(Counter solved, Counter fallback, Counter busy, Counter solvable, Counter unsolvable,
+                          DistributionSummary attempts) {
+    }
+
+    private final MinePlacer minePlacer;
+    private final Solver solver;
+    private final int threads;
+    private final Semaphore searchSlots;
+    private final Map<GameDifficulty, Duration> budgets;
+    private final ExecutorService searchers;
+    private final Map<GameDifficulty, Meters> meters = new EnumMap<>(GameDifficulty.class);
+
+    /**
+     * @param threads concurrent searches per board, the number of processors if not positive
+     * @param maxSearches boards searched for at once
+     * @param budgets the time allowed to find a board of each difficulty
+     */
+    public NoGuessGenerator(MinePlacer minePlacer, Solver solver, int threads, int maxSearches,
+                            Map<GameDifficulty, Duration> budgets) {
+        this.minePlacer = minePlacer;
+        this.solver = solver;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.searchSlots = new Semaphore(Math.max(1, maxSearches));
+        this.budgets = new EnumMap<>(budgets);
+        AtomicInteger count = new AtomicInteger();
+        this.searchers = Executors.newFixedThreadPool(this.threads * Math.max(1, maxSearches), runnable -> {
+            Thread thread = new Thread(runnable, "no-guess-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Searches for a seed whose board, generated around {@code safeIndex}, is solvable from it.
+     * @param difficulty the difficulty of the board
+     * @param safeIndex the linear index of the first square opened
+     * @return the seed, or empty if none was found within the difficulty's budget or
+     * {@code maxSearches} searches are already running
+     */
+    public OptionalLong findSeed(GameDifficulty difficulty, int safeIndex) {
+        if (!searchSlots.tryAcquire()) {
+            log.info("LOG: Too many no-guess searches running, using a standard {} board", difficulty);
+            Meters difficultyMeters = meters.get(difficulty);
+            if (difficultyMeters != null) {
+                difficultyMeters.busy().increment();
+            }
+            return OptionalLong.empty();
+        }
+        try {
+            return searchWithinBudget(difficulty, safeIndex);
+        } finally {
+            searchSlots.release();
+        }
+    }
+
+    private OptionalLong searchWithinBudget(GameDifficulty difficulty, int safeIndex) {
+        Duration budget = budgets.getOrDefault(difficulty, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+        List<Callable<Long>> searches = Collections.nCopies(threads, () -> search(difficulty, safeIndex, attempts));
+        long start = System.nanoTime();
+        Long seed = null;
+        try {
+            seed = searchers.invokeAny(searches, budget.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.info("LOG: No solvable {} board found in {} after {} attempts", difficulty, budget, attempts.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            log.error("LOG: Search for a solvable {} board failed", difficulty, e);
+        }
+        Meters difficultyMeters = meters.get(difficulty);
+        if (difficultyMeters != null) {
+            (seed != null ? difficultyMeters.solved() : difficultyMeters.fallback()).increment();
+            difficultyMeters.attempts().record(attempts.get());
+        }
+        if (seed == null) {
+            return OptionalLong.empty();
+        }
+        log.debug("LOG: Found a solvable {} board after {} attempts in {} ms", difficulty, attempts.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return OptionalLong.of(seed);
+    }
+
+    private long search(GameDifficulty difficulty, int safeIndex, AtomicInteger attempts) throws InterruptedException {
+        Meters difficultyMeters = meters.get(difficulty);
+        while (true) {
+            // invokeAny interrupts the losing searches
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long seed = ThreadLocalRandom.current().nextLong();
+            attempts.incrementAndGet();
+            Board board = minePlacer.generate(difficulty.getWidth(), difficulty.getHeight(), difficulty.getMines(),
+                    seed, safeIndex);
+            boolean solvable = solver.isSolvable(board, safeIndex);
+            if (difficultyMeters != null) {
+                (solvable ? difficultyMeters.solvable() : difficultyMeters.unsolvable()).increment();
+            }
+            if (solvable) {
+                return seed;
+            }
+        }
+    }
+
+    /**
+     * Publishes {@code minesweeper.board.noguess.boards} by {@code result} ({@code solved},
+     * {@code fallback} or {@code busy}), {@code minesweeper.board.noguess.candidates} by {@code result}
+     * ({@code solvable} or {@code unsolvable}) for the hit rate, and the distribution
+     * {@code minesweeper.board.noguess.attempts} of candidates tried per board, all tagged by
+     * difficulty.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (GameDifficulty difficulty : GameDifficulty.values()) {
+            meters.put(difficulty, new Meters(
+                    boards(registry, difficulty, "solved"),
+                    boards(registry, difficulty, "fallback"),
+                    boards(registry, difficulty, "busy"),
+                    candidates(registry, difficulty, "solvable"),
+                    candidates(registry, difficulty, "unsolvable"),
+                    DistributionSummary.builder("minesweeper.board.noguess.attempts")
+                            .description("Candidate boards tried per no-guess game")
+                            .tag("difficulty", difficulty.name())
+                            .register(registry)));
+        }
+    }
+
+    public void shutdown() {
+        searchers.shutdownNow();
+    }
+
+    private static Counter boards(MeterRegistry registry, GameDifficulty difficulty, String result) {
+        return Counter.builder("minesweeper.board.noguess.boards")
+                .description("No-guess boards requested; a fallback or busy board is a standard board after the time budget "
+                        + "ran out or with no search slot free")
+                .tag("difficulty", difficulty.name())
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter candidates(MeterRegistry registry, GameDifficulty difficulty, String result) {
+        return Counter.builder("minesweeper.board.noguess.candidates")
+                .description("Candidate boards checked by the solver")
+                .tag("difficulty", difficulty.name())
+                .tag("result", result)
+                .register(registry);
+    }
+}
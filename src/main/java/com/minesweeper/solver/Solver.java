@@ -0,0 +1,633 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Minesweeper solver working from what the player sees: the revealed numbers and the total mine
+ * count. Flags are not trusted.
+ * <p>
+ * An analysis first propagates constraints: a number whose unknown neighbours must all be safe or
+ * all be mines settles them, and a number whose unknown neighbours include those of another number
+ * settles the difference. When that stalls, the unknown squares next to numbers are split into
+ * independent components whose mine layouts are enumerated in parallel on a fork/join pool. The
+ * layouts are weighted by the ways to place the remaining mines on the unconstrained squares,
+ * which gives exact mine probabilities.
+ * <p>
+ * The running time is bounded whatever the board: propagation is polynomial in the number of
+ * squares, and the search of each component stops after {@code nodeBudget} nodes, in which case
+ * the analysis is marked inexact. Instances are thread-safe.
+ */
+public class Solver {
+    private static final Logger log = LoggerFactory.getLogger(Solver.class);
+
+    private final ForkJoinPool pool;
+    private final long nodeBudget;
+
+    /**
+     * @param parallelism threads enumerating components, the number of processors if not positive
+     * @param nodeBudget search nodes allowed per component before it is estimated instead
+     */
+    public Solver(int parallelism, long nodeBudget) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * Deduces safe squares and mines and computes the mine probability of every hidden square.
+     * @param board the board; only what the player sees is used
+     * @return the analysis
+     */
+    public Analysis analyze(Board board) {
+        return analyze(board, new BitSet(), true);
+    }
+
+    /**
+     * Suggests the next square to open: a proven safe square if there is one, otherwise the square
+     * least likely to hold a mine.
+     * @param board the board; only what the player sees is used
+     * @return the hint, or null if no hidden square may be safe
+     */
+    public Hint hint(Board board) {
+        Analysis analysis = analyze(board, new BitSet(), false);
+        int safe = analysis.safe().nextSetBit(0);
+        if (safe >= 0) {
+            return new Hint(safe, Hint.Kind.SAFE, 0);
+        }
+        int best = -1;
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isRevealed(index) && !analysis.mines().get(index)
+                    && (best < 0 || analysis.probability(index) < analysis.probability(best))) {
+                best = index;
+            }
+        }
+        return best >= 0 ? new Hint(best, Hint.Kind.GUESS, analysis.probability(best)) : null;
+    }
+
+    /**
+     * Plays a board from a first square, opening only squares proven safe.
+     * @param board the board with its mines; not modified
+     * @param start the linear index of the first square to open
+     * @return true if the board can be won without guessing
+     */
+    public boolean isSolvable(Board board, int start) {
+        Board played = board.copy();
+        for (int index = 0; index < played.size(); index++) {
+            // A misplaced flag would block the reveal of a proven safe square
+            played.setFlagged(index, false);
+        }
+        BitSet changed = new BitSet();
+        if (Moves.apply(played, MoveType.REVEAL, start, changed) == MoveOutcome.MINE || played.hasRevealedMine()) {
+            return false;
+        }
+        BitSet mines = new BitSet();
+        while (!played.isWon()) {
+            Analysis analysis = analyze(played, mines, false);
+            BitSet safe = analysis.safe();
+            if (safe.isEmpty()) {
+                return false;
+            }
+            for (int index = safe.nextSetBit(0); index >= 0; index = safe.nextSetBit(index + 1)) {
+                if (Moves.apply(played, MoveType.REVEAL, index, changed) == MoveOutcome.MINE) {
+                    throw new IllegalStateException("Square " + index + " was proven safe but holds a mine.");
+                }
+            }
+            mines = analysis.mines();
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @param knownMines mines deduced by an earlier analysis of the same board
+     * @param probabilities whether to enumerate even if propagation alone finds a safe square
+     */
+    private Analysis analyze(Board board, BitSet knownMines, boolean probabilities) {
+        BitSet mines = (BitSet) knownMines.clone();
+        BitSet safe = new BitSet(board.size());
+        propagate(board, mines, safe);
+        if (!probabilities && !safe.isEmpty()) {
+            return new Analysis(safe, mines, new double[0], true);
+        }
+        return enumerate(board, mines, safe);
+    }
+
+    /**
+     * A revealed number over its unknown neighbours.
+     * @param squares the unknown neighbours in ascending order
+     * @param mines the mines among them
+     */
+    private record Constraint(int[] squares, int mines) {
+    }
+
+    private static List<Constraint> constraints(Board board, BitSet mines, BitSet safe) {
+        int[] neighbours = new int[8];
+        int[] unknown = new int[8];
+        List<Constraint> constraints = new ArrayList<>();
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isRevealed(index) || board.isMine(index) || board.getCount(index) == 0) {
+                continue;
+            }
+            int remaining = board.getCount(index);
+            int size = 0;
+            int count = board.neighbours(index, neighbours);
+            for (int i = 0; i < count; i++) {
+                int neighbour = neighbours[i];
+                if (board.isRevealed(neighbour) || safe.get(neighbour)) {
+                    continue;
+                }
+                if (mines.get(neighbour)) {
+                    remaining--;
+                } else {
+                    unknown[size++] = neighbour;
+                }
+            }
+            if (size > 0) {
+                constraints.add(new Constraint(Arrays.copyOf(unknown, size), remaining));
+            }
+        }
+        return constraints;
+    }
+
+    /**
+     * Settles squares until neither single constraints nor pairs of nested constraints decide any
+     * more. Every round settles at least one square, so there are at most as many rounds as squares.
+     */
+    private static void propagate(Board board, BitSet mines, BitSet safe) {
+        boolean progress = true;
+        while (progress) {
+            List<Constraint> constraints = constraints(board, mines, safe);
+            progress = false;
+            for (Constraint constraint : constraints) {
+                if (constraint.mines() == 0) {
+                    progress |= set(safe, constraint.squares());
+                } else if (constraint.mines() == constraint.squares().length) {
+                    progress |= set(mines, constraint.squares());
+                }
+            }
+            if (!progress) {
+                progress = reduceSubsets(constraints, mines, safe);
+            }
+        }
+    }
+
+    /**
+     * If the squares of one constraint are a subset of another's, the remaining squares of the
+     * larger hold the difference of their mines.
+     */
+    private static boolean reduceSubsets(List<Constraint> constraints, BitSet mines, BitSet safe) {
+        Map<Integer, List<Constraint>> bySquare = new HashMap<>();
+        for (Constraint constraint : constraints) {
+            for (int square : constraint.squares()) {
+                bySquare.computeIfAbsent(square, s -> new ArrayList<>()).add(constraint);
+            }
+        }
+        boolean progress = false;
+        for (Constraint small : constraints) {
+            // A superset contains the first square of the subset too
+            for (Constraint large : bySquare.get(small.squares()[0])) {
+                if (large.squares().length <= small.squares().length || !containsAll(large.squares(), small.squares())) {
+                    continue;
+                }
+                int[] rest = difference(large.squares(), small.squares());
+                int restMines = large.mines() - small.mines();
+                if (restMines == 0) {
+                    progress |= set(safe, rest);
+                } else if (restMines == rest.length) {
+                    progress |= set(mines, rest);
+                }
+            }
+        }
+        return progress;
+    }
+
+    private Analysis enumerate(Board board, BitSet mines, BitSet safe) {
+        int remaining = Math.max(0, board.getMineCount() - mines.cardinality());
+        List<ComponentSearch> searches = components(constraints(board, mines, safe)).stream()
+                .map(component -> new ComponentSearch(component, remaining, nodeBudget))
+                .toList();
+        if (!searches.isEmpty()) {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(searches);
+                }
+            });
+        }
+
+        boolean exact = true;
+        List<ComponentSearch> resolved = new ArrayList<>();
+        BitSet constrained = new BitSet(board.size());
+        for (ComponentSearch search : searches) {
+            if (search.complete && search.total() > 0) {
+                resolved.add(search);
+                set(constrained, search.component.squares());
+            } else {
+                exact = false;
+            }
+        }
+        // Squares of components over budget are estimated as if no number touched them
+        BitSet unconstrained = new BitSet(board.size());
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isRevealed(index) && !mines.get(index) && !safe.get(index) && !constrained.get(index)) {
+                unconstrained.set(index);
+            }
+        }
+        int free = unconstrained.cardinality();
+
+        // prefix[i] and suffix[i] are the mine count distributions of components before and from i
+        int size = resolved.size();
+        double[][] prefix = new double[size + 1][];
+        double[][] suffix = new double[size + 1][];
+        prefix[0] = new double[]{1};
+        suffix[size] = new double[]{1};
+        for (int i = 0; i < size; i++) {
+            prefix[i + 1] = convolve(prefix[i], resolved.get(i).distribution(), remaining);
+            suffix[size - i - 1] = convolve(resolved.get(size - i - 1).distribution(), suffix[size - i], remaining);
+        }
+        double[] weights = binomialWeights(free, remaining);
+        double[] frontier = prefix[size];
+        double normalizer = 0;
+        for (int t = 0; t < frontier.length; t++) {
+            normalizer += frontier[t] * weights[remaining - t];
+        }
+
+        double[] probabilities = new double[board.size()];
+        Arrays.fill(probabilities, Double.NaN);
+        if (normalizer == 0) {
+            // No layout fits the mine count; the board contradicts itself
+            double estimate = (double) remaining / Math.max(1, free + constrained.cardinality());
+            for (int index = unconstrained.nextSetBit(0); index >= 0; index = unconstrained.nextSetBit(index + 1)) {
+                probabilities[index] = estimate;
+            }
+            for (int index = constrained.nextSetBit(0); index >= 0; index = constrained.nextSetBit(index + 1)) {
+                probabilities[index] = estimate;
+            }
+            exact = false;
+        } else {
+            for (int i = 0; i < size; i++) {
+                resolved.get(i).apply(convolve(prefix[i], suffix[i + 1], remaining), weights, remaining, normalizer,
+                        probabilities, mines, safe);
+            }
+            double expected = 0;
+            boolean none = true;
+            boolean all = true;
+            for (int t = 0; t < frontier.length; t++) {
+                double weight = frontier[t] * weights[remaining - t];
+                if (weight > 0) {
+                    expected += weight * (remaining - t);
+                    none &= remaining - t == 0;
+                    all &= remaining - t == free;
+                }
+            }
+            double probability = free > 0 ? expected / normalizer / free : 0;
+            for (int index = unconstrained.nextSetBit(0); index >= 0; index = unconstrained.nextSetBit(index + 1)) {
+                probabilities[index] = probability;
+                if (exact && none) {
+                    probabilities[index] = 0;
+                    safe.set(index);
+                } else if (exact && all) {
+                    probabilities[index] = 1;
+                    mines.set(index);
+                }
+            }
+        }
+        for (int index = mines.nextSetBit(0); index >= 0; index = mines.nextSetBit(index + 1)) {
+            probabilities[index] = 1;
+        }
+        for (int index = safe.nextSetBit(0); index >= 0; index = safe.nextSetBit(index + 1)) {
+            probabilities[index] = 0;
+        }
+        log.debug("LOG: Enumerated {} frontier components, {} unconstrained squares, exact: {}",
+                searches.size(), free, exact);
+        return new Analysis(safe, mines, probabilities, exact);
+    }
+
+    /**
+     * Unknown squares linked by shared numbers.
+     * @param squares the squares in the order the search assigns them
+     * @param constraints the positions in {@code squares} covered by each number
+     * @param mines the mines required by each number
+     */
+    private record Component(int[] squares, int[][] constraints, int[] mines) {
+
+        static Component of(List<Constraint> constraints) {
+            // Numbers come in board order, so consecutive squares tend to share numbers and prune early
+            Map<Integer, Integer> positions = new LinkedHashMap<>();
+            for (Constraint constraint : constraints) {
+                for (int square : constraint.squares()) {
+                    positions.putIfAbsent(square, positions.size());
+                }
+            }
+            int[][] local = new int[constraints.size()][];
+            int[] mines = new int[constraints.size()];
+            for (int i = 0; i < local.length; i++) {
+                Constraint constraint = constraints.get(i);
+                local[i] = Arrays.stream(constraint.squares()).map(positions::get).toArray();
+                mines[i] = constraint.mines();
+            }
+            return new Component(positions.keySet().stream().mapToInt(Integer::intValue).toArray(), local, mines);
+        }
+    }
+
+    private static List<Component> components(List<Constraint> constraints) {
+        Map<Integer, Integer> ids = new HashMap<>();
+        for (Constraint constraint : constraints) {
+            for (int square : constraint.squares()) {
+                ids.putIfAbsent(square, ids.size());
+            }
+        }
+        int[] parent = new int[ids.size()];
+        Arrays.setAll(parent, i -> i);
+        for (Constraint constraint : constraints) {
+            int first = find(parent, ids.get(constraint.squares()[0]));
+            for (int square : constraint.squares()) {
+                parent[find(parent, ids.get(square))] = first;
+            }
+        }
+        Map<Integer, List<Constraint>> byRoot = new LinkedHashMap<>();
+        for (Constraint constraint : constraints) {
+            byRoot.computeIfAbsent(find(parent, ids.get(constraint.squares()[0])), root -> new ArrayList<>()).add(constraint);
+        }
+        return byRoot.values().stream().map(Component::of).toList();
+    }
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Counts the mine layouts of one component by backtracking, grouped by their number of mines.
+     */
+    private static final class ComponentSearch extends RecursiveAction {
+        /** Per-square tallies above this are not searched; a component that large is estimated. */
+        private static final long MAX_TALLIES = 1L << 22;
+
+        private final Component component;
+        private final int maxMines;
+        private final long budget;
+        private final int[][] squareConstraints;
+        private final int[] placed;
+        private final int[] unassigned;
+        private final boolean[] mine;
+        private final double[] solutions;
+        private final double[][] squareMines;
+        private long nodes;
+        private boolean complete;
+
+        ComponentSearch(Component component, int remainingMines, long budget) {
+            this.component = component;
+            this.maxMines = Math.min(remainingMines, component.squares().length);
+            this.budget = budget;
+            int squares = component.squares().length;
+            int[] degree = new int[squares];
+            for (int[] constraint : component.constraints()) {
+                for (int position : constraint) {
+                    degree[position]++;
+                }
+            }
+            this.squareConstraints = new int[squares][];
+            for (int position = 0; position < squares; position++) {
+                squareConstraints[position] = new int[degree[position]];
+            }
+            Arrays.fill(degree, 0);
+            this.unassigned = new int[component.constraints().length];
+            for (int c = 0; c < unassigned.length; c++) {
+                unassigned[c] = component.constraints()[c].length;
+                for (int position : component.constraints()[c]) {
+                    squareConstraints[position][degree[position]++] = c;
+                }
+            }
+            this.placed = new int[unassigned.length];
+            this.mine = new boolean[squares];
+            this.solutions = new double[maxMines + 1];
+            this.complete = (long) squares * (maxMines + 1) <= MAX_TALLIES;
+            this.squareMines = complete ? new double[squares][maxMines + 1] : null;
+        }
+
+        @Override
+        protected void compute() {
+            if (complete) {
+                search();
+            }
+        }
+
+        /**
+         * Depth-first over the squares, safe before mine. Components can span most of a large
+         * custom board, so the path is kept in {@code mine} and {@code tried} rather than on the
+         * call stack.
+         */
+        private void search() {
+            // 0: neither value tried yet, 1: safe tried, 2: both tried
+            int[] tried = new int[mine.length + 1];
+            int position = 0;
+            int mines = 0;
+            while (true) {
+                if (tried[position] == 0) {
+                    if (++nodes > budget) {
+                        complete = false;
+                        return;
+                    }
+                    if (position == mine.length) {
+                        solutions[mines]++;
+                        for (int p = 0; p < mine.length; p++) {
+                            if (mine[p]) {
+                                squareMines[p][mines]++;
+                            }
+                        }
+                        tried[position] = 2;
+                    }
+                }
+                if (tried[position] == 0) {
+                    tried[position] = 1;
+                    if (assign(position, false)) {
+                        tried[++position] = 0;
+                        continue;
+                    }
+                    unassign(position, false);
+                }
+                if (tried[position] == 1) {
+                    tried[position] = 2;
+                    if (mines < maxMines) {
+                        if (assign(position, true)) {
+                            mines++;
+                            tried[++position] = 0;
+                            continue;
+                        }
+                        unassign(position, true);
+                    }
+                }
+                // Both values of this square are done, so take back the one before it
+                if (position == 0) {
+                    return;
+                }
+                position--;
+                if (mine[position]) {
+                    mines--;
+                    unassign(position, true);
+                } else {
+                    unassign(position, false);
+                }
+            }
+        }
+
+        private boolean assign(int position, boolean isMine) {
+            mine[position] = isMine;
+            boolean feasible = true;
+            for (int c : squareConstraints[position]) {
+                unassigned[c]--;
+                if (isMine) {
+                    placed[c]++;
+                }
+                int missing = component.mines()[c] - placed[c];
+                if (missing < 0 || missing > unassigned[c]) {
+                    feasible = false;
+                }
+            }
+            return feasible;
+        }
+
+        private void unassign(int position, boolean isMine) {
+            for (int c : squareConstraints[position]) {
+                unassigned[c]++;
+                if (isMine) {
+                    placed[c]--;
+                }
+            }
+            mine[position] = false;
+        }
+
+        double total() {
+            return Arrays.stream(solutions).sum();
+        }
+
+        double[] distribution() {
+            double total = total();
+            return Arrays.stream(solutions).map(count -> count / total).toArray();
+        }
+
+        /**
+         * Sets the probabilities of the component's squares and settles those that are safe or
+         * mines in every layout that fits the rest of the board.
+         * @param others the mine count distribution of all other components
+         */
+        void apply(double[] others, double[] weights, int remaining, double normalizer,
+                   double[] probabilities, BitSet mines, BitSet safe) {
+            double total = total();
+            double[] fit = new double[solutions.length];
+            for (int k = 0; k < fit.length; k++) {
+                for (int j = 0; j < others.length && k + j <= remaining; j++) {
+                    fit[k] += others[j] * weights[remaining - k - j];
+                }
+            }
+            for (int p = 0; p < mine.length; p++) {
+                double weighted = 0;
+                boolean never = true;
+                boolean always = true;
+                for (int k = 0; k < fit.length; k++) {
+                    if (solutions[k] > 0 && fit[k] > 0) {
+                        weighted += squareMines[p][k] / total * fit[k];
+                        never &= squareMines[p][k] == 0;
+                        always &= squareMines[p][k] == solutions[k];
+                    }
+                }
+                int square = component.squares()[p];
+                probabilities[square] = weighted / normalizer;
+                if (never) {
+                    safe.set(square);
+                } else if (always) {
+                    mines.set(square);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ways to place {@code m} mines on {@code free} squares for every {@code m} up to
+     * {@code remaining}, scaled so the largest is 1.
+     */
+    private static double[] binomialWeights(int free, int remaining) {
+        double[] logFactorial = new double[free + 1];
+        for (int i = 2; i <= free; i++) {
+            logFactorial[i] = logFactorial[i - 1] + Math.log(i);
+        }
+        double[] weights = new double[remaining + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        for (int m = 0; m <= remaining; m++) {
+            weights[m] = m <= free ? logFactorial[free] - logFactorial[m] - logFactorial[free - m] : Double.NEGATIVE_INFINITY;
+            max = Math.max(max, weights[m]);
+        }
+        for (int m = 0; m <= remaining; m++) {
+            weights[m] = Math.exp(weights[m] - max);
+        }
+        return weights;
+    }
+
+    private static double[] convolve(double[] a, double[] b, int limit) {
+        double[] result = new double[Math.min(limit + 1, a.length + b.length - 1)];
+        for (int i = 0; i < a.length && i < result.length; i++) {
+            for (int j = 0; j < b.length && i + j < result.length; j++) {
+                result[i + j] += a[i] * b[j];
+            }
+        }
+        return result;
+    }
+
+    private static boolean set(BitSet bits, int[] indices) {
+        boolean changed = false;
+        for (int index : indices) {
+            changed |= !bits.get(index);
+            bits.set(index);
+        }
+        return changed;
+    }
+
+    private static boolean containsAll(int[] sorted, int[] subset) {
+        int i = 0;
+        for (int value : subset) {
+            while (i < sorted.length && sorted[i] < value) {
+                i++;
+            }
+            if (i == sorted.length || sorted[i] != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] difference(int[] sorted, int[] subset) {
+        int[] rest = new int[sorted.length - subset.length];
+        int size = 0;
+        int j = 0;
+        for (int value : sorted) {
+            if (j < subset.length && subset[j] == value) {
+                j++;
+            } else {
+                rest[size++] = value;
+            }
+        }
+        return rest;
+    }
+}
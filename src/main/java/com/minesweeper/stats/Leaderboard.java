@@ -0,0 +1,65 @@
+package com.minesweeper.stats;
+
+import com.minesweeper.dto.LeaderboardEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The top {@code minesweeper.stats.leaderboard-size} users by games won, kept in memory.
+ * <p>
+ * Seeded once from the database and then fed the totals of every user whose counters are flushed.
+ * Counters only grow, so a user that falls off the board cannot come back without a flush that
+ * offers it again, and the board stays exact. Reads return an immutable snapshot without locking.
+ */
+@Component
+public class Leaderboard {
+    private static final Comparator<LeaderboardEntry> RANKING = Comparator
+            .comparingInt(LeaderboardEntry::getGamesWon).reversed()
+            .thenComparing(LeaderboardEntry::getUsername, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(LeaderboardEntry::getUserId);
+
+    private final int size;
+    private final TreeSet<LeaderboardEntry> ranked = new TreeSet<>(RANKING);
+    private final Map<UUID, LeaderboardEntry> entries = new HashMap<>();
+    private volatile List<LeaderboardEntry> snapshot = List.of();
+
+    public Leaderboard(@Value("${minesweeper.stats.leaderboard-size:100}") int size) {
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Offers the current totals of users, replacing their previous entries.
+     */
+    public synchronized void offer(Collection<LeaderboardEntry> users) {
+        for (LeaderboardEntry user : users) {
+            LeaderboardEntry previous = entries.remove(user.getUserId());
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            if (ranked.size() == size && RANKING.compare(user, ranked.last()) >= 0) {
+                continue;
+            }
+            ranked.add(user);
+            entries.put(user.getUserId(), user);
+            if (ranked.size() > size) {
+                entries.remove(ranked.pollLast().getUserId());
+            }
+        }
+        snapshot = List.copyOf(ranked);
+    }
+
+    /**
+     * @param limit the number of entries, at most the size of the board
+     * @return the best users, best first
+     */
+    public List<LeaderboardEntry> top(int limit) {
+        List<LeaderboardEntry> current = snapshot;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+}
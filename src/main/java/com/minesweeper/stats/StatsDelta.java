@@ -0,0 +1,15 @@
+package com.minesweeper.stats;
+
+/**
+ * Pending increments of one user's game counters.
+ */
+public record StatsDelta(int played, int won, int lost) {
+
+    public static final StatsDelta CREATED = new StatsDelta(1, 0, 0);
+    public static final StatsDelta WON = new StatsDelta(0, 1, 0);
+    public static final StatsDelta LOST = new StatsDelta(0, 0, 1);
+
+    public StatsDelta plus(StatsDelta other) {
+        return new StatsDelta(played + other.played, won + other.won, lost + other.lost);
+    }
+}
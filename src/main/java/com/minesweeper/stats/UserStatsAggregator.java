@@ -0,0 +1,131 @@
+package com.minesweeper.stats;
+
+import com.minesweeper.dto.LeaderboardEntry;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.UserRepository;
+import com.minesweeper.repository.UserStatsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects game counter increments of users off the move path.
+ * <p>
+ * Created and finished games only merge an increment into a per-user pending delta; a scheduled
+ * flush writes the coalesced deltas in batches, one transaction per batch and rows in id order,
+ * then feeds the new totals to the {@link Leaderboard}. A hot user therefore costs one row update
+ * per flush instead of one per game. Deltas of a failed batch are merged back and retried.
+ */
+@Component
+public class UserStatsAggregator implements MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(UserStatsAggregator.class);
+
+    private final UserStatsRepository userStatsRepository;
+    private final UserRepository userRepository;
+    private final TransactionOperations transactionOperations;
+    private final Leaderboard leaderboard;
+    private final int flushBatchSize;
+    private final Map<UUID, StatsDelta> pending = new ConcurrentHashMap<>();
+
+    public UserStatsAggregator(UserStatsRepository userStatsRepository, UserRepository userRepository,
+                               TransactionOperations transactionOperations, Leaderboard leaderboard,
+                               @Value("${minesweeper.stats.flush-batch-size:500}") int flushBatchSize) {
+        this.userStatsRepository = userStatsRepository;
+        this.userRepository = userRepository;
+        this.transactionOperations = transactionOperations;
+        this.leaderboard = leaderboard;
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    public void gameCreated(User user) {
+        record(user, StatsDelta.CREATED);
+    }
+
+    /**
+     * Counts a finished game; games still in progress are ignored.
+     */
+    public void gameFinished(User user, GameState state) {
+        if (state == GameState.WON) {
+            record(user, StatsDelta.WON);
+        } else if (state == GameState.LOST) {
+            record(user, StatsDelta.LOST);
+        }
+    }
+
+    private void record(User user, StatsDelta delta) {
+        if (user != null && user.getId() != null) {
+            pending.merge(user.getId(), delta, StatsDelta::plus);
+        }
+    }
+
+    /**
+     * Seeds the leaderboard with the best users of the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLeaderboard() {
+        List<User> users = userRepository.findByOrderByGamesWonDescUsernameAsc(PageRequest.of(0, leaderboard.size()));
+        leaderboard.offer(users.stream().map(LeaderboardEntry::of).toList());
+        log.info("LOG: Loaded {} users into the leaderboard", users.size());
+    }
+
+    /**
+     * Writes the pending deltas in batches of {@code minesweeper.stats.flush-batch-size} users.
+     */
+    @Scheduled(fixedDelayString = "${minesweeper.stats.flush-interval:PT5S}")
+    public synchronized void flush() {
+        List<Map.Entry<UUID, StatsDelta>> drained = new ArrayList<>();
+        for (UUID userId : pending.keySet()) {
+            StatsDelta delta = pending.remove(userId);
+            if (delta != null) {
+                drained.add(Map.entry(userId, delta));
+            }
+        }
+        drained.sort(Map.Entry.comparingByKey());
+        for (int from = 0; from < drained.size(); from += flushBatchSize) {
+            writeBatch(drained.subList(from, Math.min(from + flushBatchSize, drained.size())));
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("minesweeper.stats.pending", pending, Map::size)
+                .description("Users with game counter increments waiting for the flush")
+                .register(registry);
+    }
+
+    private void writeBatch(List<Map.Entry<UUID, StatsDelta>> batch) {
+        try {
+            transactionOperations.executeWithoutResult(status -> userStatsRepository.addAll(batch));
+            log.debug("LOG: Flushed game counters of {} users", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush game counters of {} users, retrying on the next flush", batch.size(), e);
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), StatsDelta::plus));
+            return;
+        }
+        List<UUID> userIds = batch.stream().map(Map.Entry::getKey).toList();
+        leaderboard.offer(userRepository.findAllById(userIds).stream().map(LeaderboardEntry::of).toList());
+    }
+}
@@ -0,0 +1,96 @@
+package com.minesweeper.cache;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.history.MoveLog;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.MoveType;
+import com.minesweeper.service.BoardStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+class GameCacheTest {
+    private final BoardStore boardStore = mock(BoardStore.class);
+    private final GameHistory gameHistory = mock(GameHistory.class);
+    private final GameCache gameCache = new GameCache(boardStore, gameHistory, TransactionOperations.withoutTransaction(),
+            100, Duration.ofMinutes(1), 10);
+
+    @Test
+    void testRolledBackBatchKeepsEveryGameDirty() {
+        LiveGame first = playedGame();
+        LiveGame second = playedGame();
+        when(boardStore.save(same(second.getGame()), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        gameCache.flushDirty();
+
+        assertEquals(2, gameCache.dirtyCount());
+        assertEquals(0L, first.getGame().getVersion());
+        assertEquals(0L, second.getGame().getVersion());
+
+        // The retry writes both games again, the first one included
+        reset(boardStore, gameHistory);
+        gameCache.flushDirty();
+
+        assertEquals(0, gameCache.dirtyCount());
+        for (LiveGame liveGame : new LiveGame[]{first, second}) {
+            verify(boardStore).save(same(liveGame.getGame()), any(), eq(new int[]{0}));
+            ArgumentCaptor<MoveLog> moves = ArgumentCaptor.forClass(MoveLog.class);
+            verify(gameHistory).append(same(liveGame.getGame()), any(), moves.capture());
+            assertEquals(1, moves.getValue().count());
+            assertEquals(1L, liveGame.getGame().getVersion());
+        }
+    }
+
+    @Test
+    void testFailedFlushOfFinishedGameIsRetriedByTheScheduledFlush() {
+        List<Game> finished = new ArrayList<>();
+        gameCache.onFinishedWritten(finished::add);
+        LiveGame liveGame = playedGame();
+        liveGame.getGame().setState(GameState.WON);
+        when(boardStore.save(same(liveGame.getGame()), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> gameCache.flush(liveGame));
+
+        assertEquals(1, gameCache.dirtyCount());
+        assertTrue(finished.isEmpty());
+
+        reset(boardStore, gameHistory);
+        gameCache.flushDirty();
+
+        assertEquals(0, gameCache.dirtyCount());
+        verify(boardStore).save(same(liveGame.getGame()), any(), eq(new int[]{0}));
+        assertEquals(1L, liveGame.getGame().getVersion());
+        assertEquals(List.of(liveGame.getGame()), finished);
+    }
+
+    private LiveGame playedGame() {
+        Game game = new Game(null, 3, 3, 1);
+        game.setId(UUID.randomUUID());
+        game.setVersion(0L);
+        Board board = new Board(3, 3);
+        board.placeMine(8);
+        board.computeCounts();
+        LiveGame liveGame = new LiveGame(game, board);
+        gameCache.put(liveGame);
+        board.reveal(0);
+        liveGame.logMove(MoveType.REVEAL, 0);
+        gameCache.markDirty(liveGame, 0);
+        return liveGame;
+    }
+}
@@ -0,0 +1,136 @@
+package com.minesweeper.cluster;
+
+import com.minesweeper.MinesweeperApplication;
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.LiveGame;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.dto.TurnResponse;
+import com.minesweeper.engine.Board;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two nodes in one JVM, each a full application context on its own port, sharing an H2 database.
+ * The write-behind flush is slowed down, so board state only reaches the other node through a
+ * handoff.
+ */
+class GameClusterTest {
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    private final RestClient http = RestClient.builder()
+            .requestFactory(new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build()))
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void testOwnerServesMovesAndHandsOffOnMembershipChange() {
+        ConfigurableApplicationContext a = startNode();
+        ConfigurableApplicationContext b = startNode();
+        String urlA = url(a);
+        String urlB = url(b);
+
+        http.put().uri(urlA + "/api/cluster/members").contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(urlA, urlB)).retrieve().toBodilessEntity();
+        HashRing ring = b.getBean(ClusterMembership.class).ring();
+        assertEquals(List.of(urlA, urlB).stream().sorted().toList(), ring.members());
+
+        User user = a.getBean(UserRepository.class).save(new User(null, "cluster", 0, 0, 0));
+        UUID gameId = null;
+        for (int i = 0; i < 64 && gameId == null; i++) {
+            GameResponse created = http.post()
+                    .uri(urlA + "/api/new/custom?userId={userId}&width=16&height=16&mines=40", user.getId())
+                    .retrieve().body(GameResponse.class);
+            gameId = urlB.equals(ring.owner(created.getId())) ? created.getId() : null;
+        }
+        assertNotNull(gameId);
+        assertNull(cache(a).getIfCached(gameId));
+
+        // A client claiming to be a node cannot make a play the game b owns
+        HttpStatusCode spoofed = http.post().uri(urlA + "/api/turn").contentType(MediaType.APPLICATION_JSON)
+                .header(GameForwarder.FORWARDED_HEADER, urlB)
+                .body(Map.of("userId", user.getId().toString(), "gameId", gameId.toString(), "row", 8, "col", 8))
+                .retrieve().onStatus(status -> true, (request, response) -> {
+                }).toBodilessEntity().getStatusCode();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, spoofed);
+        assertNull(cache(a).getIfCached(gameId));
+
+        // Played through a, applied on b
+        TurnResponse first = turn(urlA, user, gameId, 8, 8);
+        assertTrue(first.getRevealedSafeCount() > 0);
+        LiveGame onB = cache(b).getIfCached(gameId);
+        assertNotNull(onB);
+        assertEquals(first.getRevealedSafeCount(), onB.getBoard().getRevealedSafeCount());
+        assertNull(cache(a).getIfCached(gameId));
+        GameResponse view = http.get().uri(urlA + "/api/" + gameId + "?board=false").retrieve().body(GameResponse.class);
+        assertEquals(first.getRevealedSafeCount(), view.getRevealedSafeCount());
+
+        // b leaves; a loads the snapshot b writes on the way out
+        http.put().uri(urlB + "/api/cluster/members").contentType(MediaType.APPLICATION_JSON)
+                .body(List.of(urlA)).retrieve().toBodilessEntity();
+        assertEquals(List.of(urlA), a.getBean(ClusterMembership.class).ring().members());
+        assertNull(cache(b).getIfCached(gameId));
+        LiveGame onA = cache(a).getIfCached(gameId);
+        assertNotNull(onA);
+        assertEquals(first.getRevealedSafeCount(), onA.getBoard().getRevealedSafeCount());
+
+        Board board = onA.getBoard();
+        int hidden = 0;
+        while (board.isRevealed(hidden) || board.isMine(hidden)) {
+            hidden++;
+        }
+        TurnResponse second = turn(urlB, user, gameId, board.row(hidden), board.col(hidden));
+        assertTrue(second.getRevealedSafeCount() > first.getRevealedSafeCount());
+        assertEquals(second.getRevealedSafeCount(), onA.getBoard().getRevealedSafeCount());
+        assertNull(cache(b).getIfCached(gameId));
+    }
+
+    private TurnResponse turn(String node, User user, UUID gameId, int row, int col) {
+        return http.post().uri(node + "/api/turn").contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("userId", user.getId().toString(), "gameId", gameId.toString(), "row", row, "col", col))
+                .retrieve().body(TurnResponse.class);
+    }
+
+    private ConfigurableApplicationContext startNode() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MinesweeperApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:cluster;NON_KEYWORDS=ROW,USER,VALUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.show-sql=false",
+                "--spring.liquibase.change-log=classpath:db/changelog/test-changelog.xml",
+                "--minesweeper.cache.flush-interval=PT1H");
+        nodes.add(context);
+        return context;
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return context.getBean(ClusterMembership.class).self();
+    }
+
+    private static GameCache cache(ConfigurableApplicationContext context) {
+        return context.getBean(GameCache.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.minesweeper.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    @Test
+    void testGamesAreSpreadEvenly() {
+        HashRing ring = new HashRing(List.of("http://a:8080", "http://b:8080/", "http://c:8080"), 128);
+        Map<String, Integer> owned = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 30_000; i++) {
+            owned.merge(ring.owner(new UUID(random.nextLong(), random.nextLong())), 1, Integer::sum);
+        }
+
+        assertEquals(List.of("http://a:8080", "http://b:8080", "http://c:8080"), ring.members());
+        owned.values().forEach(count -> assertEquals(10_000, count, 1_500));
+    }
+
+    @Test
+    void testAddingANodeOnlyMovesGamesToIt() {
+        HashRing before = new HashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080"), 128);
+        HashRing after = new HashRing(List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+        Random random = new Random(2);
+        int moved = 0;
+        for (int i = 0; i < 20_000; i++) {
+            UUID gameId = new UUID(random.nextLong(), random.nextLong());
+            if (!before.owner(gameId).equals(after.owner(gameId))) {
+                assertEquals("http://d:8080", after.owner(gameId));
+                moved++;
+            }
+        }
+
+        assertEquals(5_000, moved, 1_500);
+    }
+
+    @Test
+    void testEmptyRingOwnsNothing() {
+        assertNull(new HashRing(List.of(), 128).owner(UUID.randomUUID()));
+    }
+}
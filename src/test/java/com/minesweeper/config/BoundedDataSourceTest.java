@@ -0,0 +1,44 @@
+package com.minesweeper.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BoundedDataSourceTest {
+
+    @Test
+    void testPermitIsReturnedOnClose() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, Duration.ofMillis(10));
+
+        Connection first = dataSource.getConnection();
+        assertEquals(0, dataSource.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        verify(connection, times(2)).close();
+        assertEquals(1, dataSource.availablePermits());
+        dataSource.getConnection().close();
+        assertEquals(1, dataSource.availablePermits());
+    }
+
+    @Test
+    void testPermitIsReturnedWhenTargetFails() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("down"));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, Duration.ofMillis(10));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(1, dataSource.availablePermits());
+    }
+}
@@ -0,0 +1,36 @@
+package com.minesweeper.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardGridTest {
+
+    @Test
+    void testEncodePacksTwoSquaresPerByte() {
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 0));
+        board.computeCounts();
+        board.reveal(board.index(0, 1));
+        board.setFlagged(board.index(0, 0), true);
+
+        byte[] grid = BoardGrid.encode(board, false);
+
+        assertEquals(5, grid.length);
+        assertEquals(BoardGrid.FLAGGED, BoardGrid.get(grid, 0));
+        assertEquals(1, BoardGrid.get(grid, 1));
+        assertEquals(BoardGrid.HIDDEN, BoardGrid.get(grid, 8));
+        assertEquals(0, grid[4] & 0xF);
+    }
+
+    @Test
+    void testMinesAreShownWhenRequested() {
+        Board board = new Board(2, 1);
+        board.placeMine(1);
+        board.computeCounts();
+
+        assertEquals(BoardGrid.HIDDEN, BoardGrid.get(BoardGrid.encode(board, false), 1));
+        assertEquals(BoardGrid.MINE, BoardGrid.get(BoardGrid.encode(board, true), 1));
+        assertArrayEquals(BoardGrid.encode(new Board(2, 1), false), BoardGrid.hidden(2));
+    }
+}
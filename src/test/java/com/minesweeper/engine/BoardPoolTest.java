@@ -0,0 +1,76 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.GameDifficulty;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardPoolTest {
+    private final MinePlacer minePlacer = new MinePlacer();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoardPool pool;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testPoolIsFilledAndRefilled() throws Exception {
+        pool = new BoardPool(minePlacer, 4, 2);
+        pool.bindTo(meterRegistry);
+        pool.start();
+        awaitDepth(GameDifficulty.OLYMPIC, 4);
+
+        for (int i = 0; i < 3; i++) {
+            BoardPool.PooledBoard claimed = pool.claim(GameDifficulty.OLYMPIC);
+            assertNotNull(claimed);
+            Board board = claimed.board();
+            assertEquals(99, board.getMineCount());
+            assertEquals(30, board.getWidth());
+            Board regenerated = minePlacer.generate(30, 16, 99, claimed.seed());
+            for (int index = 0; index < board.size(); index++) {
+                assertEquals(regenerated.isMine(index), board.isMine(index));
+                assertEquals(regenerated.getCount(index), board.getCount(index));
+            }
+        }
+
+        awaitDepth(GameDifficulty.OLYMPIC, 4);
+        assertEquals(4, meterRegistry.get("minesweeper.board.pool.depth").tag("difficulty", "OLYMPIC").gauge().value());
+        assertEquals(3, meterRegistry.get("minesweeper.board.pool.claims").tag("difficulty", "OLYMPIC")
+                .tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testEmptyPoolCountsMiss() {
+        pool = new BoardPool(minePlacer, 4, 1);
+        pool.bindTo(meterRegistry);
+
+        assertNull(pool.claim(GameDifficulty.EASY));
+        assertEquals(1, meterRegistry.get("minesweeper.board.pool.claims").tag("difficulty", "EASY")
+                .tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void testDisabledPool() {
+        pool = new BoardPool(minePlacer, 0, 1);
+        pool.bindTo(meterRegistry);
+        pool.start();
+
+        assertFalse(pool.isEnabled());
+        assertNull(pool.claim(GameDifficulty.EASY));
+        assertTrue(meterRegistry.find("minesweeper.board.pool.claims").meters().isEmpty());
+    }
+
+    private void awaitDepth(GameDifficulty difficulty, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.depth(difficulty) < depth && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, pool.depth(difficulty));
+    }
+}
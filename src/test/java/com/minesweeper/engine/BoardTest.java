@@ -0,0 +1,136 @@
+package com.minesweeper.engine;
+
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    @Test
+    void testNeighbourCounts() {
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 0));
+        board.placeMine(board.index(2, 2));
+        board.computeCounts();
+
+        assertEquals(1, board.getCount(board.index(0, 1)));
+        assertEquals(2, board.getCount(board.index(1, 1)));
+        assertEquals(0, board.getCount(board.index(0, 2)));
+        assertEquals(7, board.getTotalSafeCount());
+    }
+
+    @Test
+    void testFloodFillStopsAtNumbers() {
+        Board board = new Board(4, 4);
+        board.placeMine(board.index(3, 3));
+        board.computeCounts();
+
+        int start = board.index(0, 0);
+        assertTrue(board.reveal(start));
+        int[] revealed = board.floodFill(start);
+
+        assertEquals(board.getTotalSafeCount() - 1, revealed.length);
+        assertFalse(board.isRevealed(board.index(3, 3)));
+        assertTrue(board.isWon());
+    }
+
+    @Test
+    void testFloodFillReturnsEachSquareOnce() {
+        Board board = new Board(300, 200);
+        board.placeMine(board.index(150, 100));
+        board.computeCounts();
+
+        int start = board.index(0, 0);
+        board.reveal(start);
+        int[] revealed = board.floodFill(start);
+
+        assertEquals(board.getTotalSafeCount() - 1, revealed.length);
+        assertEquals(revealed.length, Arrays.stream(revealed).distinct().count());
+        assertTrue(Arrays.stream(revealed).noneMatch(index -> index == start));
+        assertEquals(0, board.floodFill(start).length);
+    }
+
+    @Test
+    void testChordOpensNeighboursOfSatisfiedNumber() {
+        Board board = new Board(4, 4);
+        board.placeMine(board.index(0, 0));
+        board.placeMine(board.index(3, 3));
+        board.computeCounts();
+        int number = board.index(1, 1);
+        board.reveal(number);
+        BitSet changed = new BitSet();
+
+        assertEquals(MoveOutcome.IGNORED, Moves.apply(board, MoveType.CHORD, number, changed));
+        assertTrue(changed.isEmpty());
+
+        Moves.apply(board, MoveType.FLAG, board.index(0, 0), changed);
+        changed.clear();
+        assertEquals(MoveOutcome.REVEALED, Moves.apply(board, MoveType.CHORD, number, changed));
+
+        // The zero at (0, 2) floods the rest of the board in the same move
+        assertTrue(board.isWon());
+        assertEquals(board.getTotalSafeCount() - 1, changed.cardinality());
+        assertFalse(changed.get(number));
+    }
+
+    @Test
+    void testChordWithMisplacedFlagOpensMine() {
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 0));
+        board.computeCounts();
+        int number = board.index(1, 1);
+        board.reveal(number);
+        board.setFlagged(board.index(2, 2), true);
+        BitSet changed = new BitSet();
+
+        assertEquals(MoveOutcome.MINE, Moves.apply(board, MoveType.CHORD, number, changed));
+        assertTrue(board.hasRevealedMine());
+        assertTrue(changed.get(board.index(0, 0)));
+        assertFalse(board.isRevealed(board.index(2, 2)));
+    }
+
+    @Test
+    void testRevealIsIdempotent() {
+        Board board = new Board(2, 2);
+        board.placeMine(0);
+        board.computeCounts();
+
+        assertTrue(board.reveal(3));
+        assertFalse(board.reveal(3));
+        assertEquals(1, board.getRevealedSafeCount());
+    }
+
+    @Test
+    void testSnapshotRoundTrip() {
+        Board board = new Board(7, 5);
+        board.placeMine(board.index(0, 6));
+        board.placeMine(board.index(4, 0));
+        board.computeCounts();
+        board.reveal(board.index(2, 3));
+        board.setFlagged(board.index(4, 0), true);
+
+        Board decoded = BoardCodec.decode(BoardCodec.encode(board));
+
+        assertEquals(7, decoded.getWidth());
+        assertEquals(5, decoded.getHeight());
+        assertEquals(2, decoded.getMineCount());
+        assertEquals(1, decoded.getRevealedSafeCount());
+        assertTrue(decoded.isMine(board.index(0, 6)));
+        assertTrue(decoded.isRevealed(board.index(2, 3)));
+        assertTrue(decoded.isFlagged(board.index(4, 0)));
+        assertEquals(1, decoded.getCount(board.index(3, 1)));
+    }
+
+    @Test
+    void testSnapshotRejectsUnknownVersion() {
+        byte[] snapshot = BoardCodec.encode(new Board(2, 2));
+        snapshot[0] = 99;
+
+        assertThrows(IllegalStateException.class, () -> BoardCodec.decode(snapshot));
+    }
+}
@@ -0,0 +1,69 @@
+package com.minesweeper.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinePlacerTest {
+
+    @Test
+    void testSameSeedGivesSameBoard() {
+        MinePlacer placer = new MinePlacer();
+        Board first = placer.generate(30, 16, 99, 12345L);
+        Board second = placer.generate(30, 16, 99, 12345L);
+
+        assertEquals(99, first.getMineCount());
+        assertTrue(IntStream.range(0, first.size()).allMatch(i -> first.isMine(i) == second.isMine(i)));
+    }
+
+    @Test
+    void testDenseBoardPlacesExactCount() {
+        Board board = new MinePlacer("SplittableRandom").generate(100, 100, 100 * 100 - 1, 7L);
+
+        assertEquals(100 * 100 - 1, board.getMineCount());
+        assertEquals(1, board.getTotalSafeCount());
+    }
+
+    @Test
+    void testRejectsTooManyMines() {
+        assertThrows(IllegalArgumentException.class, () -> new MinePlacer().generate(3, 3, 9, 1L));
+    }
+
+    @Test
+    void testSnapshotWithoutMinesIsRegeneratedFromSeed() {
+        MinePlacer placer = new MinePlacer();
+        Board board = placer.generate(16, 16, 40, 99L);
+        int safe = IntStream.range(0, board.size()).filter(i -> !board.isMine(i)).findFirst().orElseThrow();
+        board.reveal(safe);
+
+        byte[] snapshot = BoardCodec.encode(board, false);
+        Board decoded = BoardCodec.decode(snapshot, () -> placer.generate(16, 16, 40, 99L));
+
+        assertTrue(snapshot.length < BoardCodec.encode(board).length);
+        assertEquals(40, decoded.getMineCount());
+        assertTrue(decoded.isRevealed(safe));
+        assertThrows(IllegalStateException.class, () -> BoardCodec.decode(snapshot));
+    }
+
+    @Test
+    void testSafeZoneIsShiftedInsideTheBoard() {
+        assertArrayEquals(new int[]{0, 1, 2, 5, 6, 7, 10, 11, 12}, MinePlacer.safeZone(5, 5, 10, 0));
+        assertArrayEquals(new int[]{12, 13, 14, 17, 18, 19, 22, 23, 24}, MinePlacer.safeZone(5, 5, 10, 24));
+        assertArrayEquals(new int[]{12}, MinePlacer.safeZone(5, 5, 20, 12));
+    }
+
+    @Test
+    void testSafeSquareNeverHoldsAMine() {
+        MinePlacer placer = new MinePlacer();
+        for (long seed = 0; seed < 200; seed++) {
+            int safeIndex = (int) (seed % 480);
+            Board board = placer.generate(30, 16, 99, seed, safeIndex);
+
+            assertEquals(99, board.getMineCount());
+            assertFalse(board.isMine(safeIndex));
+            assertEquals(0, board.getCount(safeIndex));
+        }
+    }
+}
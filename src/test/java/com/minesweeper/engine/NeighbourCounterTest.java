@@ -0,0 +1,59 @@
+package com.minesweeper.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeighbourCounterTest {
+
+    @Test
+    void testMatchesNaiveCountOnIrregularBoards() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[][] sizes = {{1, 1}, {1, 9}, {9, 1}, {9, 9}, {30, 16}, {67, 45}, {130, 3}};
+        for (int[] size : sizes) {
+            int width = size[0];
+            int height = size[1];
+            BitSet mines = new BitSet(width * height);
+            for (int i = 0; i < width * height; i++) {
+                mines.set(i, random.nextInt(3) == 0);
+            }
+
+            byte[] expected = naiveCounts(mines, width, height);
+            byte[] scalar = new byte[width * height];
+            byte[] preferred = new byte[width * height];
+            NeighbourCounter.scalar().count(mines, width, height, scalar);
+            NeighbourCounter.getInstance().count(mines, width, height, preferred);
+
+            assertArrayEquals(expected, scalar, "scalar " + width + "x" + height);
+            assertArrayEquals(expected, preferred, "preferred " + width + "x" + height);
+        }
+    }
+
+    @Test
+    void testVectorImplementationIsUsedWhenModuleIsPresent() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorModule, NeighbourCounter.getInstance() instanceof VectorNeighbourCounter);
+    }
+
+    private byte[] naiveCounts(BitSet mines, int width, int height) {
+        byte[] counts = new byte[width * height];
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                int count = 0;
+                for (int r = row - 1; r <= row + 1; r++) {
+                    for (int c = col - 1; c <= col + 1; c++) {
+                        if ((r != row || c != col) && r >= 0 && r < height && c >= 0 && c < width
+                                && mines.get(r * width + c)) {
+                            count++;
+                        }
+                    }
+                }
+                counts[row * width + col] = (byte) count;
+            }
+        }
+        return counts;
+    }
+}
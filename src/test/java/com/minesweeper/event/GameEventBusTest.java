@@ -0,0 +1,153 @@
+package com.minesweeper.event;
+
+import com.minesweeper.dto.BoardDelta;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventBusTest {
+    private static final BoardDelta DELTA = new BoardDelta(new int[]{1}, new int[]{1}, new int[0], new int[0], null);
+
+    private final GameEventBus eventBus = new GameEventBus(4, 2, Duration.ofSeconds(10));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        eventBus.shutdown();
+    }
+
+    @Test
+    void testStalledSubscriberIsDroppedWithoutBlockingPublisher() throws Exception {
+        eventBus.bindTo(meterRegistry);
+        Game game = game();
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(GameEvent event) throws IOException {
+                super.send(event);
+                stalled.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        eventBus.subscribe(game.getId(), slow, GameResponse.of(game));
+        assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+        // The slow sink is stuck on the snapshot; the fifth queued move overflows its queue
+        for (int i = 0; i < 5; i++) {
+            eventBus.publishMove(game, DELTA);
+        }
+
+        assertTrue(slow.closed.await(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, slow.reason);
+        assertEquals(1, meterRegistry.get("minesweeper.events.dropped").counter().count());
+        assertEquals(0, eventBus.subscriptionCount());
+        release.countDown();
+
+        RecordingSink fast = new RecordingSink();
+        eventBus.subscribe(game.getId(), fast, GameResponse.of(game));
+        eventBus.publishMove(game, DELTA);
+        game.setState(GameState.WON);
+        eventBus.publishMove(game, DELTA);
+        assertTrue(fast.closed.await(10, TimeUnit.SECONDS));
+        assertNull(fast.reason);
+        assertEquals(List.of(0L, 1L, 2L), fast.events.stream().map(GameEvent::getSequence).toList());
+        assertEquals(0, eventBus.subscriptionCount());
+        assertFalse(eventBus.hasSubscribers(game.getId()));
+    }
+
+    @Test
+    void testStalledSendIsInterruptedSoOtherFeedsKeepFlowing() throws Exception {
+        GameEventBus bus = new GameEventBus(4, 1, Duration.ofMillis(200));
+        bus.bindTo(meterRegistry);
+        try {
+            Game stuck = game();
+            CountDownLatch never = new CountDownLatch(1);
+            RecordingSink stalled = new RecordingSink() {
+                @Override
+                public void send(GameEvent event) throws IOException {
+                    try {
+                        never.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException("Write interrupted", e);
+                    }
+                }
+            };
+            bus.subscribe(stuck.getId(), stalled, GameResponse.of(stuck));
+
+            // The only sender thread is blocked on the stalled feed until the timeout frees it
+            Game other = game();
+            RecordingSink fast = new RecordingSink();
+            bus.subscribe(other.getId(), fast, GameResponse.of(other));
+            other.setState(GameState.WON);
+            bus.publishMove(other, DELTA);
+
+            assertTrue(stalled.closed.await(10, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, stalled.reason);
+            assertTrue(fast.closed.await(10, TimeUnit.SECONDS));
+            assertNull(fast.reason);
+            assertEquals(2, fast.events.size());
+            assertEquals(1, meterRegistry.get("minesweeper.events.send.timeouts").counter().count());
+            assertEquals(0, bus.subscriptionCount());
+        } finally {
+            bus.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedSendCancelsSubscription() throws Exception {
+        Game game = game();
+        RecordingSink broken = new RecordingSink() {
+            @Override
+            public void send(GameEvent event) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        eventBus.subscribe(game.getId(), broken, GameResponse.of(game));
+
+        assertTrue(broken.closed.await(10, TimeUnit.SECONDS));
+        assertFalse(eventBus.hasSubscribers(game.getId()));
+    }
+
+    private static Game game() {
+        Game game = new Game(null, 3, 3, 1);
+        game.setId(UUID.randomUUID());
+        return game;
+    }
+
+    private static class RecordingSink implements EventSink {
+        final List<GameEvent> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile Throwable reason;
+
+        @Override
+        public void send(GameEvent event) throws IOException {
+            events.add(event);
+        }
+
+        @Override
+        public void close(Throwable reason) {
+            this.reason = reason;
+            closed.countDown();
+        }
+    }
+}
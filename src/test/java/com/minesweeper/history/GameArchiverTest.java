@@ -0,0 +1,230 @@
+package com.minesweeper.history;
+
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.cache.LiveGame;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.CellBatchRepository;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.repository.MoveLogRepository;
+import com.minesweeper.repository.UserRepository;
+import com.minesweeper.service.BoardStore;
+import com.minesweeper.service.impl.SnapshotBoardStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archives games on H2 through the real repositories and checks that their rows are gone and
+ * that they still replay and load as they were played.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive;NON_KEYWORDS=ROW,USER,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.liquibase.change-log=classpath:db/changelog/test-changelog.xml"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CellBatchRepository.class, GameArchiveRepository.class, MoveLogRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GameArchiverTest {
+    private final MinePlacer minePlacer = new MinePlacer();
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CellRepository cellRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CellBatchRepository cellBatchRepository;
+
+    @Autowired
+    private GameArchiveRepository gameArchiveRepository;
+
+    @Autowired
+    private MoveLogRepository moveLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactions;
+    private BoardStore boardStore;
+    private GameHistory history;
+    private GameCache gameCache;
+    private GameArchiver archiver;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new TransactionTemplate(transactionManager);
+        boardStore = new SnapshotBoardStore(gameRepository, cellRepository, minePlacer);
+        history = new GameHistory(moveLogRepository, gameArchiveRepository, minePlacer, 8);
+        gameCache = new GameCache(boardStore, history, transactions, 100, Duration.ofMinutes(1), 10);
+        archiver = new GameArchiver(gameRepository, cellRepository, cellBatchRepository, gameArchiveRepository,
+                history, gameCache, new GameLocks(), transactions, Duration.ofDays(7), Duration.ofHours(1), 10, 50);
+        user = userRepository.save(new User(null, "archiver-" + UUID.randomUUID(), 0, 0, 0));
+    }
+
+    @Test
+    void testArchivedGamesReplayAndResume() {
+        // In progress with a logged history and leftover legacy cells, idle for a month
+        Game idle = seededGame(3L);
+        Board board = minePlacer.generate(idle);
+        List<String> played = new ArrayList<>();
+        played.add(grid(board));
+        play(idle, board, new Random(3), 30, played);
+        cellBatchRepository.insertAll(idle.getId(), board);
+        // Lost before snapshots existed: cells only, no seed and no move log
+        Game legacy = legacyGame();
+        Board legacyBoard = minePlacer.generate(16, 16, 40, 11L);
+        legacyBoard.reveal(firstMine(legacyBoard));
+        cellBatchRepository.insertAll(legacy.getId(), legacyBoard);
+        // Old, but held in memory, and recent
+        Game cached = seededGame(5L);
+        gameCache.put(new LiveGame(cached, minePlacer.generate(cached)));
+        Game recent = seededGame(7L);
+        ageGames(idle, legacy, cached);
+
+        archiver.run();
+
+        assertTrue(isArchived(idle));
+        assertTrue(isArchived(legacy));
+        assertFalse(isArchived(cached));
+        assertFalse(isArchived(recent));
+        for (Game game : List.of(idle, legacy)) {
+            assertEquals(0, count("SELECT count(*) FROM cell WHERE game_id = ?", game.getId()));
+            assertEquals(0, count("SELECT count(*) FROM game_move WHERE game_id = ?", game.getId()));
+            assertEquals(0, count("SELECT count(*) FROM game_snapshot WHERE game_id = ?", game.getId()));
+            assertEquals(1, count("SELECT count(*) FROM game_archive WHERE game_id = ? AND cells_deleted = true", game.getId()));
+        }
+
+        Game archived = gameRepository.findById(idle.getId()).orElseThrow();
+        for (int moves = 0; moves <= archived.getMoveCount(); moves++) {
+            assertEquals(played.get(moves), grid(history.replay(archived, moves).board()), "after " + moves + " moves");
+        }
+        Board legacyLoaded = boardStore.load(gameRepository.findById(legacy.getId()).orElseThrow());
+        assertEquals(grid(legacyBoard), grid(legacyLoaded));
+        // Nothing was logged, but the packed board still gives the layout to replay from
+        assertEquals(grid(legacyBoard.layout()), grid(history.replay(gameRepository.findById(legacy.getId()).orElseThrow(), 0).board()));
+
+        // Moves after the archival are logged as usual and replayed after the archived ones
+        Board resumed = boardStore.load(archived);
+        assertEquals(played.get(played.size() - 1), grid(resumed));
+        play(archived, resumed, new Random(4), 20, played);
+        for (int moves = 0; moves <= archived.getMoveCount(); moves++) {
+            assertEquals(played.get(moves), grid(history.replay(archived, moves).board()), "after " + moves + " moves");
+        }
+        assertTrue(archived.getMoveCount() > 30);
+    }
+
+    private Game seededGame(long seed) {
+        Game game = new Game(user, 16, 16, 40);
+        game.setSeed(seed);
+        Board board = minePlacer.generate(game);
+        return transactions.execute(status -> boardStore.create(game, board));
+    }
+
+    private Game legacyGame() {
+        Game game = new Game(user, 16, 16, 40);
+        game.setState(GameState.LOST);
+        return gameRepository.save(game);
+    }
+
+    /**
+     * Plays safe reveals and flags, flushing every few moves like the cache does.
+     */
+    private void play(Game game, Board board, Random random, int count, List<String> played) {
+        MoveLog pending = new MoveLog();
+        BitSet changed = new BitSet();
+        int moves = 0;
+        while (moves < count && !board.isWon()) {
+            MoveType type = random.nextInt(4) == 0 ? MoveType.FLAG : MoveType.REVEAL;
+            int index = random.nextInt(board.size());
+            if (type == MoveType.REVEAL && board.isMine(index)
+                    || Moves.apply(board, type, index, changed) == MoveOutcome.IGNORED) {
+                continue;
+            }
+            pending.add(type, index);
+            game.setMoveCount(game.getMoveCount() + 1);
+            played.add(grid(board));
+            moves++;
+            if (moves % 4 == 0 || moves == count || board.isWon()) {
+                MoveLog flushed = pending;
+                transactions.executeWithoutResult(status -> {
+                    boardStore.save(game, board, new int[0]);
+                    history.append(game, board, flushed);
+                });
+                game.setVersion(game.getVersion() + 1);
+                pending = new MoveLog();
+            }
+        }
+    }
+
+    private void ageGames(Game... games) {
+        for (Game game : games) {
+            jdbcTemplate.update("UPDATE game SET last_active_at = ? WHERE id = ?",
+                    Timestamp.from(Instant.now().minus(Duration.ofDays(30))), game.getId());
+        }
+    }
+
+    private boolean isArchived(Game game) {
+        return gameRepository.findById(game.getId()).orElseThrow().isArchived();
+    }
+
+    private int count(String sql, UUID gameId) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, gameId);
+    }
+
+    private static int firstMine(Board board) {
+        int index = 0;
+        while (!board.isMine(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String grid(Board board) {
+        StringBuilder grid = new StringBuilder(board.size());
+        for (int index = 0; index < board.size(); index++) {
+            grid.append(board.isMine(index) ? '*' : ' ')
+                    .append(board.isFlagged(index) ? 'F' : board.isRevealed(index) ? (char) ('0' + board.getCount(index)) : '.');
+        }
+        return grid.toString();
+    }
+}
@@ -0,0 +1,142 @@
+package com.minesweeper.history;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.MoveLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plays random moves, appends them to the move log on H2 in uneven chunks and checks that replays
+ * to any move count match the board as it was played.
+ */
+@JdbcTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history;NON_KEYWORDS=ROW;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MoveLogRepository.class, GameArchiveRepository.class})
+class GameHistoryTest {
+    private final MinePlacer minePlacer = new MinePlacer();
+
+    @Autowired
+    private MoveLogRepository moveLogRepository;
+
+    @Autowired
+    private GameArchiveRepository gameArchiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testReplayMatchesPlayedBoard() {
+        GameHistory history = new GameHistory(moveLogRepository, gameArchiveRepository, minePlacer, 16);
+        Game game = game(30, 16, 40, 7L);
+        Board board = minePlacer.generate(game);
+        List<String> played = new ArrayList<>();
+        MoveOutcome outcome = play(history, game, board, new Random(7), played);
+
+        assertTrue(game.getMoveCount() > 16);
+        assertTrue(jdbcTemplate.queryForObject("SELECT count(*) FROM game_snapshot", Integer.class) > 0);
+        for (int moves = 0; moves <= game.getMoveCount(); moves++) {
+            GameHistory.Replay replay = history.replay(game, moves);
+            assertEquals(played.get(moves), grid(replay.board()), "after " + moves + " moves");
+        }
+        GameHistory.Replay last = history.replay(game, game.getMoveCount());
+        assertEquals(outcome == MoveOutcome.MINE ? GameState.LOST : GameState.WON, last.state());
+        assertThrows(IllegalArgumentException.class, () -> history.replay(game, game.getMoveCount() + 1));
+    }
+
+    @Test
+    void testReplayOfGameWithoutSeed() {
+        GameHistory history = new GameHistory(moveLogRepository, gameArchiveRepository, minePlacer, 16);
+        Game game = game(30, 16, 40, 11L);
+        Board board = minePlacer.generate(game);
+        game.setSeed(null);
+        List<String> played = new ArrayList<>();
+        play(history, game, board, new Random(11), played);
+
+        assertEquals(0, moveLogRepository.findSnapshot(game.getId(), 0).orElseThrow().moveCount());
+        for (int moves = 0; moves <= game.getMoveCount(); moves++) {
+            Board replayed = history.replay(game, moves).board();
+            assertEquals(played.get(moves), grid(replayed), "after " + moves + " moves");
+            for (int index = 0; index < board.size(); index++) {
+                assertEquals(board.isMine(index), replayed.isMine(index), "mine at " + index);
+            }
+        }
+    }
+
+    @Test
+    void testRecordsAreCompact() {
+        MoveLog log = new MoveLog();
+        log.add(MoveType.REVEAL, 5);
+        log.add(MoveType.FLAG, 479);
+        log.add(MoveType.UNFLAG, 1 << 20);
+
+        assertEquals(2 + 3 + 4, log.toByteArray().length);
+        assertEquals(List.of(new MoveLog.Entry(MoveType.REVEAL, 5), new MoveLog.Entry(MoveType.FLAG, 479),
+                new MoveLog.Entry(MoveType.UNFLAG, 1 << 20)), MoveLog.decode(log.toByteArray()));
+    }
+
+    /**
+     * Plays random moves until the game ends, appending them in uneven chunks and recording the
+     * grid after each one.
+     */
+    private static MoveOutcome play(GameHistory history, Game game, Board board, Random random, List<String> played) {
+        played.add(grid(board));
+        MoveLog pending = new MoveLog();
+        BitSet changed = new BitSet();
+        MoveOutcome outcome = MoveOutcome.REVEALED;
+        while (outcome != MoveOutcome.MINE && !board.isWon()) {
+            MoveType type = random.nextInt(4) == 0 ? MoveType.FLAG : MoveType.REVEAL;
+            int index = random.nextInt(board.size());
+            if (type == MoveType.REVEAL && board.isMine(index) && game.getMoveCount() < 40) {
+                continue;
+            }
+            outcome = Moves.apply(board, type, index, changed);
+            if (outcome == MoveOutcome.IGNORED) {
+                continue;
+            }
+            pending.add(type, index);
+            game.setMoveCount(game.getMoveCount() + 1);
+            played.add(grid(board));
+            if (random.nextInt(5) == 0) {
+                history.append(game, board, pending);
+                pending = new MoveLog();
+            }
+        }
+        history.append(game, board, pending);
+        return outcome;
+    }
+
+    private Game game(int width, int height, int mines, long seed) {
+        Game game = new Game(null, width, height, mines);
+        game.setId(UUID.randomUUID());
+        game.setSeed(seed);
+        jdbcTemplate.update("INSERT INTO game (id, width, height, mines_count, state) VALUES (?, ?, ?, ?, 'IN_PROGRESS')",
+                game.getId(), width, height, mines);
+        return game;
+    }
+
+    private static String grid(Board board) {
+        StringBuilder grid = new StringBuilder(board.size());
+        for (int index = 0; index < board.size(); index++) {
+            grid.append(board.isFlagged(index) ? 'F' : board.isRevealed(index) ? (char) ('0' + board.getCount(index)) : '.');
+        }
+        return grid.toString();
+    }
+}
@@ -0,0 +1,25 @@
+package com.minesweeper.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellBatchRepositoryTest {
+
+    @Test
+    void testCellIdsAreAscendingVersion7() {
+        UUID[] ids = CellBatchRepository.cellIds(1000);
+
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(7, ids[i].version());
+            assertEquals(2, ids[i].variant());
+            if (i > 0) {
+                assertTrue(ids[i - 1].compareTo(ids[i]) < 0);
+                assertEquals(ids[i - 1].getMostSignificantBits(), ids[i].getMostSignificantBits());
+            }
+        }
+        assertTrue(ids[0].getMostSignificantBits() >>> 16 <= System.currentTimeMillis());
+    }
+}
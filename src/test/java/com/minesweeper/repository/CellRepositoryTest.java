@@ -0,0 +1,160 @@
+package com.minesweeper.repository;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.model.Cell;
+import com.minesweeper.model.CellState;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Liquibase changelog on H2 and checks the plans of the statements Hibernate generates
+ * for the cell lookups. H2 indexes foreign keys on its own, so lookups by game alone may use
+ * either that index or {@code idx_cell_game_row_col}; PostgreSQL only has the latter.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cells;NON_KEYWORDS=ROW;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.minesweeper.repository.CellRepositoryTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(CellBatchRepository.class)
+class CellRepositoryTest {
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private CellRepository cellRepository;
+
+    @Autowired
+    private CellBatchRepository cellBatchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID gameId;
+
+    @BeforeEach
+    void setUp() {
+        gameId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO game (id, width, height, mines_count, state) VALUES (?, 2, 2, 1, 'IN_PROGRESS')", gameId);
+        insertCell(0, 0, true, false);
+        insertCell(0, 1, false, true);
+        insertCell(1, 0, false, false);
+        insertCell(1, 1, false, true);
+        // Other games' cells, so that the planner has a reason to prefer the index
+        UUID otherGameId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO game (id, width, height, mines_count, state) VALUES (?, 50, 50, 1, 'IN_PROGRESS')", otherGameId);
+        List<Object[]> rows = new ArrayList<>();
+        for (int index = 0; index < 2500; index++) {
+            rows.add(new Object[]{UUID.randomUUID(), otherGameId, index / 50, index % 50});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO cell (id, game_id, row, col, has_mine, revealed, surrounding_mines) "
+                + "VALUES (?, ?, ?, ?, false, false, 0)", rows);
+        jdbcTemplate.execute("ANALYZE");
+        statements.clear();
+    }
+
+    @Test
+    void testPointLookupUsesCompositeIndex() {
+        Optional<Cell> cell = cellRepository.findByGameIdAndRowAndCol(gameId, 0, 1);
+
+        assertTrue(cell.isPresent());
+        assertTrue(cell.get().isRevealed());
+        assertTrue(cellRepository.findByGameIdAndRowAndCol(gameId, 5, 5).isEmpty());
+        assertPlan(statements.get(0), "IDX_CELL_GAME_ROW_COL", gameId, 0, 1);
+    }
+
+    @Test
+    void testExistsByGame() {
+        assertTrue(cellRepository.existsByGameId(gameId));
+        assertFalse(cellRepository.existsByGameId(UUID.randomUUID()));
+        assertPlan(statements.get(0), "GAME_ID = ?1", gameId);
+    }
+
+    @Test
+    void testStatesAreReadWithoutEntities() {
+        List<CellState> states = cellRepository.findStatesByGameId(gameId);
+
+        assertEquals(4, states.size());
+        assertTrue(states.contains(new CellState(0, 0, true, false, false)));
+        assertPlan(statements.get(0), "GAME_ID = ?1", gameId);
+    }
+
+    @Test
+    void testFlagsAreWrittenAndReadBack() {
+        UUID flaggedGameId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO game (id, width, height, mines_count, state) VALUES (?, 2, 2, 1, 'IN_PROGRESS')", flaggedGameId);
+        Board board = new Board(2, 2);
+        board.placeMine(0);
+        board.computeCounts();
+        board.setFlagged(0, true);
+        cellBatchRepository.insertAll(flaggedGameId, board);
+
+        board.setFlagged(0, false);
+        board.setFlagged(3, true);
+        cellBatchRepository.updateAll(flaggedGameId, board, new int[]{0, 3});
+
+        Board loaded = Board.fromCells(2, 2, cellRepository.findStatesByGameId(flaggedGameId));
+        assertFalse(loaded.isFlagged(0));
+        assertTrue(loaded.isFlagged(3));
+        assertTrue(loaded.isMine(0));
+    }
+
+    @Test
+    void testSafeCellCounts() {
+        CellRepository.SafeCellCounts counts = cellRepository.countSafeCells(gameId);
+
+        assertEquals(3, counts.getTotalSafe());
+        assertEquals(2, counts.getRevealedSafe());
+        assertFalse(counts.isWon());
+        assertPlan(statements.get(0), "GAME_ID = ?1", gameId);
+
+        jdbcTemplate.update("UPDATE cell SET revealed = true WHERE game_id = ? AND has_mine = false", gameId);
+        assertTrue(cellRepository.countSafeCells(gameId).isWon());
+        assertEquals(0, cellRepository.countSafeCells(UUID.randomUUID()).getTotalSafe());
+    }
+
+    /**
+     * Asserts that the statement reads cells through an index whose condition contains the given
+     * text, without scanning the table or joining the game.
+     */
+    private void assertPlan(String sql, String indexCondition, Object... parameters) {
+        String plan = jdbcTemplate.query("EXPLAIN " + sql, rs -> {
+            rs.next();
+            return rs.getString(1);
+        }, parameters);
+        assertNotNull(plan);
+        assertFalse(plan.contains("tableScan"), plan);
+        assertFalse(plan.contains("\"GAME\""), plan);
+        assertTrue(plan.contains(indexCondition), plan);
+    }
+
+    private void insertCell(int row, int col, boolean hasMine, boolean revealed) {
+        jdbcTemplate.update("INSERT INTO cell (id, game_id, row, col, has_mine, revealed, surrounding_mines) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0)", UUID.randomUUID(), gameId, row, col, hasMine, revealed);
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
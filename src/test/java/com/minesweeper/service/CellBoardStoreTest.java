@@ -0,0 +1,68 @@
+package com.minesweeper.service;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.Game;
+import com.minesweeper.repository.CellBatchRepository;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.service.impl.CellBoardStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CellBoardStoreTest {
+    private final GameRepository gameRepository = mock(GameRepository.class);
+    private final CellRepository cellRepository = mock(CellRepository.class);
+    private final CellBatchRepository cellBatchRepository = mock(CellBatchRepository.class);
+    private final CellBoardStore boardStore = new CellBoardStore(gameRepository, cellRepository, cellBatchRepository,
+            new MinePlacer());
+
+    @Test
+    void testConflictingSaveLeavesTheCellsAlone() {
+        Game game = game();
+        Board board = board();
+        when(cellRepository.existsByGameId(game.getId())).thenReturn(true);
+        when(gameRepository.updateProgress(game)).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> boardStore.save(game, board, new int[]{0}));
+
+        verifyNoInteractions(cellBatchRepository);
+    }
+
+    @Test
+    void testSaveWritesTheChangedCellsAfterTheGame() {
+        Game game = game();
+        Board board = board();
+        when(cellRepository.existsByGameId(game.getId())).thenReturn(true);
+        when(gameRepository.updateProgress(game)).thenReturn(1);
+
+        boardStore.save(game, board, new int[]{0});
+
+        InOrder order = inOrder(gameRepository, cellBatchRepository);
+        order.verify(gameRepository).updateProgress(game);
+        order.verify(cellBatchRepository).updateAll(eq(game.getId()), same(board), any());
+    }
+
+    private static Game game() {
+        Game game = new Game(null, 3, 3, 1);
+        game.setId(UUID.randomUUID());
+        game.setVersion(0L);
+        return game;
+    }
+
+    private static Board board() {
+        Board board = new Board(3, 3);
+        board.placeMine(8);
+        board.computeCounts();
+        board.reveal(0);
+        return board;
+    }
+}
@@ -0,0 +1,243 @@
+package com.minesweeper.service;
+
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.BoardPool;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.event.GameEventBus;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.metrics.GameMetrics;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.repository.MoveLogRepository;
+import com.minesweeper.repository.UserRepository;
+import com.minesweeper.service.impl.GameServiceImpl;
+import com.minesweeper.solver.NoGuessGenerator;
+import com.minesweeper.solver.Solver;
+import com.minesweeper.service.impl.SnapshotBoardStore;
+import com.minesweeper.stats.UserStatsAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers {@link GameService#makeMove} from several threads against an in-memory game table, with a
+ * cache small enough to evict games mid-play and a concurrent background flush.
+ */
+class GameServiceConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int GAMES = 8;
+
+    private final Map<UUID, Game> rows = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicInteger> finishingWrites = new ConcurrentHashMap<>();
+    private final AtomicInteger conflicts = new AtomicInteger();
+    private final Map<UUID, AtomicInteger> loggedMoves = new ConcurrentHashMap<>();
+
+    @Test
+    void testConcurrentMovesKeepEveryGameConsistent() throws Exception {
+        GameRepository gameRepository = inMemoryGameRepository();
+        MinePlacer minePlacer = new MinePlacer();
+        MoveLogRepository moveLogRepository = inMemoryMoveLog();
+        BoardStore boardStore = new SnapshotBoardStore(gameRepository, mock(CellRepository.class), minePlacer);
+        GameCache gameCache = new GameCache(boardStore, new GameHistory(moveLogRepository, mock(GameArchiveRepository.class), minePlacer, 256),
+                TransactionOperations.withoutTransaction(), 2, Duration.ofMinutes(1), 4);
+        GameLocks gameLocks = new GameLocks();
+        GameServiceImpl gameService = new GameServiceImpl(mock(UserService.class), gameRepository, mock(UserRepository.class),
+                boardStore, minePlacer, new BoardPool(minePlacer, 0, 1), gameCache, gameLocks, new GameMetrics(new SimpleMeterRegistry()),
+                new GameEventBus(16, 1, Duration.ofSeconds(5)), mock(UserStatsAggregator.class), new Solver(1, 1000),
+                mock(NoGuessGenerator.class), new ClusterMembership("", List.of(), 128), false);
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        Map<UUID, Board> layouts = new LinkedHashMap<>();
+        for (int i = 0; i < GAMES; i++) {
+            Game game = gameService.createCustomGame(user, 9, 9, 10);
+            layouts.put(game.getId(), minePlacer.generate(game));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean playing = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (playing.get()) {
+                    gameCache.flushDirty();
+                    Thread.onSpinWait();
+                }
+                return null;
+            });
+            List<Future<?>> players = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                players.add(executor.submit(() -> {
+                    start.await();
+                    playSafeSquares(gameService, user, layouts, new Random(seed));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> player : players) {
+                player.get(1, TimeUnit.MINUTES);
+            }
+            playing.set(false);
+            flusher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+        gameCache.flushAll();
+
+        assertEquals(0, conflicts.get());
+        assertEquals(0, gameCache.dirtyCount());
+        assertEquals(0, gameCache.evictedDirtyCount());
+        assertEquals(0, gameLocks.size());
+        for (Map.Entry<UUID, Board> entry : layouts.entrySet()) {
+            Game row = rows.get(entry.getKey());
+            Board board = BoardCodec.decode(row.getBoard(), entry::getValue);
+            assertEquals(GameState.WON, row.getState());
+            assertEquals(row.getTotalSafeCount(), row.getRevealedSafeCount());
+            assertEquals(row.getTotalSafeCount(), board.getRevealedSafeCount());
+            assertTrue(board.isWon());
+            assertEquals(1, finishingWrites.get(row.getId()).get());
+            assertEquals(row.getMoveCount(), loggedMoves.get(row.getId()).get());
+        }
+    }
+
+    @Test
+    void testGameLocksAreReleased() throws Exception {
+        GameLocks gameLocks = new GameLocks();
+        UUID gameId = UUID.randomUUID();
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        gameLocks.withLock(gameId, () -> {
+                            if (inside.incrementAndGet() != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            inside.decrementAndGet();
+                            return null;
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, overlaps.get());
+        assertEquals(0, gameLocks.size());
+    }
+
+    private void playSafeSquares(GameService gameService, User user, Map<UUID, Board> layouts, Random random) {
+        List<UUID> gameIds = new ArrayList<>(layouts.keySet());
+        Collections.shuffle(gameIds, random);
+        for (UUID gameId : gameIds) {
+            Board layout = layouts.get(gameId);
+            List<Integer> squares = new ArrayList<>();
+            for (int index = 0; index < layout.size(); index++) {
+                if (!layout.isMine(index)) {
+                    squares.add(index);
+                }
+            }
+            Collections.shuffle(squares, random);
+            for (int index : squares) {
+                try {
+                    gameService.makeMove(user, gameId, layout.row(index), layout.col(index));
+                } catch (IllegalStateException e) {
+                    assertEquals("Game is already finished.", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private GameRepository inMemoryGameRepository() {
+        GameRepository gameRepository = mock(GameRepository.class);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            if (game.getId() == null) {
+                game.setId(UUID.randomUUID());
+            }
+            game.setVersion(0L);
+            rows.put(game.getId(), copy(game));
+            finishingWrites.put(game.getId(), new AtomicInteger());
+            return game;
+        });
+        when(gameRepository.findById(any(UUID.class))).thenAnswer(invocation ->
+                Optional.ofNullable(rows.get((UUID) invocation.getArgument(0))).map(this::copy));
+        when(gameRepository.updateProgress(any(Game.class))).thenAnswer(invocation -> {
+            Game game = invocation.getArgument(0);
+            synchronized (rows) {
+                Game row = rows.get(game.getId());
+                if (!Objects.equals(row.getVersion(), game.getVersion())) {
+                    conflicts.incrementAndGet();
+                    return 0;
+                }
+                if (row.getState() == GameState.IN_PROGRESS && game.getState() != GameState.IN_PROGRESS) {
+                    finishingWrites.get(game.getId()).incrementAndGet();
+                }
+                Game updated = copy(game);
+                updated.setVersion(row.getVersion() + 1);
+                rows.put(game.getId(), updated);
+                return 1;
+            }
+        });
+        return gameRepository;
+    }
+
+    /**
+     * Counts appended moves and checks that every append continues where the previous one ended.
+     */
+    private MoveLogRepository inMemoryMoveLog() {
+        MoveLogRepository moveLogRepository = mock(MoveLogRepository.class);
+        doAnswer(invocation -> {
+            AtomicInteger logged = loggedMoves.computeIfAbsent(invocation.getArgument(0), id -> new AtomicInteger());
+            assertEquals(logged.get(), (int) invocation.getArgument(1));
+            logged.addAndGet(invocation.getArgument(2));
+            return null;
+        }).when(moveLogRepository).append(any(UUID.class), anyInt(), anyInt(), any(byte[].class));
+        return moveLogRepository;
+    }
+
+    private Game copy(Game game) {
+        Game copy = new Game(game.getUser(), game.getWidth(), game.getHeight(), game.getMinesCount());
+        copy.setId(game.getId());
+        copy.setSeed(game.getSeed());
+        copy.setBoardGenerated(game.isBoardGenerated());
+        copy.setSafeIndex(game.getSafeIndex());
+        copy.setRevealedSafeCount(game.getRevealedSafeCount());
+        copy.setTotalSafeCount(game.getTotalSafeCount());
+        copy.setState(game.getState());
+        copy.setBoard(game.getBoard() != null ? game.getBoard().clone() : null);
+        copy.setVersion(game.getVersion());
+        copy.setMoveCount(game.getMoveCount());
+        return copy;
+    }
+}
@@ -1,18 +1,55 @@
 package com.minesweeper.service;
 
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.dto.GameResponse;
+import com.minesweeper.dto.HintResponse;
+import com.minesweeper.dto.MoveRequest;
+import com.minesweeper.dto.MoveResult;
+import com.minesweeper.dto.TurnResponse;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardCodec;
+import com.minesweeper.engine.BoardPool;
+import com.minesweeper.engine.BoardGrid;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.event.EventSink;
+import com.minesweeper.event.GameEvent;
+import com.minesweeper.event.GameEventBus;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.metrics.GameMetrics;
 import com.minesweeper.model.*;
 import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameArchiveRepository;
 import com.minesweeper.repository.GameRepository;
+import com.minesweeper.repository.MoveLogRepository;
 import com.minesweeper.repository.UserRepository;
+import com.minesweeper.repository.UserStatsRepository;
 import com.minesweeper.service.impl.GameServiceImpl;
+import com.minesweeper.solver.Hint;
+import com.minesweeper.solver.NoGuessGenerator;
+import com.minesweeper.solver.Solver;
+import com.minesweeper.service.impl.SnapshotBoardStore;
+import com.minesweeper.stats.Leaderboard;
+import com.minesweeper.stats.StatsDelta;
+import com.minesweeper.stats.UserStatsAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -32,8 +69,22 @@ class GameServiceTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
+    @Mock
+    private UserStatsRepository userStatsRepository;
+
+    @Mock
+    private MoveLogRepository moveLogRepository;
+
+    @Mock
+    private GameArchiveRepository gameArchiveRepository;
+
     private GameServiceImpl gameService;
+    private GameCache gameCache;
+    private SimpleMeterRegistry meterRegistry;
+    private UserStatsAggregator userStats;
+    private BoardPool boardPool;
+    private Solver solver;
+    private NoGuessGenerator noGuessGenerator;
 
     private AutoCloseable mocks;
     private User testUser;
@@ -41,6 +92,7 @@ class GameServiceTest {
     @BeforeEach
     void setUp() {
         mocks = MockitoAnnotations.openMocks(this);
+        gameService = createService(false);
         log.info("Initializing test setup...");
 
         testUser = new User();
@@ -48,10 +100,15 @@ class GameServiceTest {
         testUser.setUsername("test_player");
 
         when(userService.getUserById(testUser.getId())).thenReturn(Optional.of(testUser));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(gameRepository.updateProgress(any(Game.class))).thenReturn(1);
     }
 
     @AfterEach
     void tearDown() throws Exception {
+        boardPool.shutdown();
+        noGuessGenerator.shutdown();
+        solver.shutdown();
         mocks.close();
         log.info("Test execution completed.");
     }
@@ -60,10 +117,12 @@ class GameServiceTest {
     void testCreateStandardGame() {
         GameDifficulty difficulty = GameDifficulty.EASY;
         UUID gameId = UUID.randomUUID();
-        Game game = new Game(testUser, difficulty.getWidth(), difficulty.getHeight(), difficulty.getMines());
-        game.setId(gameId);
-
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game saved = invocation.getArgument(0);
+            saved.setId(gameId);
+            saved.setVersion(0L);
+            return saved;
+        });
 
         Game createdGame = gameService.createStandardGame(testUser, difficulty);
 
@@ -71,16 +130,24 @@ class GameServiceTest {
         assertEquals(difficulty.getWidth(), createdGame.getWidth());
         assertEquals(difficulty.getHeight(), createdGame.getHeight());
         assertEquals(difficulty.getMines(), createdGame.getMinesCount());
+        assertNotNull(createdGame.getSeed());
+        Board board = new MinePlacer().generate(difficulty.getWidth(), difficulty.getHeight(),
+                difficulty.getMines(), createdGame.getSeed());
+        assertEquals(difficulty.getMines(), BoardCodec.decode(createdGame.getBoard(), () -> board).getMineCount());
+        verify(gameRepository, times(1)).save(any(Game.class));
+        verifyNoInteractions(cellRepository);
     }
 
     @Test
     void testCreateCustomGame() {
         int width = 10, height = 10, mines = 20;
         UUID gameId = UUID.randomUUID();
-        Game game = new Game(testUser, width, height, mines);
-        game.setId(gameId);
-
-        when(gameRepository.save(any(Game.class))).thenReturn(game);
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game saved = invocation.getArgument(0);
+            saved.setId(gameId);
+            saved.setVersion(0L);
+            return saved;
+        });
 
         Game createdGame = gameService.createCustomGame(testUser, width, height, mines);
 
@@ -88,6 +155,7 @@ class GameServiceTest {
         assertEquals(width, createdGame.getWidth());
         assertEquals(height, createdGame.getHeight());
         assertEquals(mines, createdGame.getMinesCount());
+        assertEquals(gameId, createdGame.getId());
     }
 
     @Test
@@ -96,21 +164,25 @@ class GameServiceTest {
         int row = 1, col = 1;
         Game game = new Game(testUser, 5, 5, 5);
         game.setId(gameId);
+        game.setVersion(0L);
         game.setState(GameState.IN_PROGRESS);
 
-        Cell cell = new Cell(game, row, col);
-        cell.setHasMine(false);
-        cell.setRevealed(false);
+        List<Cell> cells = createCells(game, new int[][]{{0, 0}, {0, 4}, {3, 4}, {4, 3}, {4, 4}});
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(cellRepository.findByGameId(gameId)).thenReturn(List.of(cell));
-        when(cellRepository.save(any(Cell.class))).thenReturn(cell);
+        when(cellRepository.findStatesByGameId(gameId)).thenReturn(cells.stream().map(CellState::of).toList());
         when(gameRepository.save(any(Game.class))).thenReturn(game);
 
         Game updatedGame = gameService.makeMove(testUser, gameId, row, col);
+        verify(gameRepository, never()).updateProgress(any(Game.class));
+        gameCache.flushDirty();
 
         assertNotNull(updatedGame);
-        assertTrue(cell.isRevealed());
+        verify(gameRepository, times(1)).updateProgress(game);
+        Board board = BoardCodec.decode(updatedGame.getBoard());
+        assertTrue(board.isRevealed(board.index(row, col)));
+        assertEquals(1, board.getCount(board.index(row, col)));
+        assertEquals(1, board.getRevealedSafeCount());
         assertEquals(GameState.IN_PROGRESS, updatedGame.getState());
     }
 
@@ -120,18 +192,18 @@ class GameServiceTest {
         int row = 2, col = 3;
         Game game = new Game(testUser, 5, 5, 5);
         game.setId(gameId);
+        game.setVersion(0L);
         game.setState(GameState.IN_PROGRESS);
 
-        Cell cell = new Cell(game, row, col);
-        cell.setHasMine(true);
-        cell.setRevealed(false);
+        List<Cell> cells = createCells(game, new int[][]{{row, col}});
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(cellRepository.findByGameId(gameId)).thenReturn(List.of(cell));
+        when(cellRepository.findStatesByGameId(gameId)).thenReturn(cells.stream().map(CellState::of).toList());
 
         Game updatedGame = gameService.makeMove(testUser, gameId, row, col);
 
         assertEquals(GameState.LOST, updatedGame.getState());
+        verify(gameRepository, times(1)).updateProgress(game);
     }
 
     @Test
@@ -140,17 +212,19 @@ class GameServiceTest {
         int row = 2, col = 3;
         Game game = new Game(testUser, 5, 5, 5);
         game.setId(gameId);
+        game.setVersion(0L);
         game.setState(GameState.IN_PROGRESS);
 
-        Cell cell = new Cell(game, row, col);
-        cell.setHasMine(false);
-        cell.setRevealed(true);
+        List<Cell> cells = createCells(game, new int[][]{{0, 0}});
+        cellAt(cells, row, col).setRevealed(true);
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(cellRepository.findStatesByGameId(gameId)).thenReturn(cells.stream().map(CellState::of).toList());
 
         Game updatedGame = gameService.makeMove(testUser, gameId, row, col);
 
         assertEquals(GameState.IN_PROGRESS, updatedGame.getState());
+        verify(gameRepository, never()).save(any(Game.class));
     }
 
     @Test
@@ -158,20 +232,21 @@ class GameServiceTest {
         UUID gameId = UUID.randomUUID();
         Game game = new Game(testUser, 3, 3, 1);
         game.setId(gameId);
+        game.setVersion(0L);
 
-        Cell mineCell = new Cell(game, 0, 0);
-        mineCell.setHasMine(true);
-        mineCell.setRevealed(false);
-
-        Cell safeCell = new Cell(game, 0, 1);
-        safeCell.setHasMine(false);
-        safeCell.setRevealed(true);
+        List<Cell> cells = createCells(game, new int[][]{{0, 0}});
+        cells.stream()
+                .filter(cell -> !cell.isHasMine() && !(cell.getRow() == 0 && cell.getCol() == 1))
+                .forEach(cell -> cell.setRevealed(true));
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(cellRepository.findStatesByGameId(gameId)).thenReturn(cells.stream().map(CellState::of).toList());
 
         Game updatedGame = gameService.makeMove(testUser, gameId, 0, 1);
 
         assertEquals(GameState.WON, updatedGame.getState());
+        assertEquals(8, updatedGame.getRevealedSafeCount());
+        assertEquals(8, updatedGame.getTotalSafeCount());
     }
 
     @Test
@@ -179,24 +254,438 @@ class GameServiceTest {
         UUID gameId = UUID.randomUUID();
         Game game = new Game(testUser, 3, 3, 1);
         game.setId(gameId);
+        game.setVersion(0L);
         game.setState(GameState.IN_PROGRESS);
 
-        Cell safeCell1 = new Cell(game, 0, 1);
-        safeCell1.setHasMine(false);
-        safeCell1.setRevealed(false);
-
-        Cell safeCell2 = new Cell(game, 1, 1);
-        safeCell2.setHasMine(false);
-        safeCell2.setRevealed(false);
+        List<Cell> cells = createCells(game, new int[][]{{0, 0}});
 
         when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
-        when(cellRepository.findByGameId(gameId)).thenReturn(List.of(safeCell1, safeCell2));
+        when(cellRepository.findStatesByGameId(gameId)).thenReturn(cells.stream().map(CellState::of).toList());
 
         gameService.makeMove(testUser, gameId, 0, 1);
-        assertTrue(safeCell1.isRevealed());
+        gameCache.flushDirty();
+        assertTrue(BoardCodec.decode(game.getBoard()).isRevealed(1));
+        assertEquals(GameState.IN_PROGRESS, game.getState());
 
-        gameService.makeMove(testUser, gameId, 1, 1);
-        assertTrue(safeCell2.isRevealed());
+        gameService.makeMove(testUser, gameId, 2, 2);
+        assertTrue(BoardCodec.decode(game.getBoard()).isRevealed(8));
         assertEquals(GameState.WON, game.getState());
+        verify(cellRepository, times(1)).findStatesByGameId(gameId);
+    }
+
+    @Test
+    void testMakeMove_SnapshotBoard() {
+        UUID gameId = UUID.randomUUID();
+        Game game = new Game(testUser, 3, 3, 1);
+        game.setId(gameId);
+        game.setVersion(0L);
+
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 0));
+        board.computeCounts();
+        game.setBoard(BoardCodec.encode(board));
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.save(any(Game.class))).thenReturn(game);
+
+        gameService.makeMove(testUser, gameId, 2, 2);
+
+        assertEquals(GameState.WON, game.getState());
+        assertTrue(BoardCodec.decode(game.getBoard()).isWon());
+        verifyNoInteractions(cellRepository);
+    }
+
+    @Test
+    void testLazyGameIsGeneratedAroundFirstMove() {
+        GameServiceImpl lazyService = createService(true);
+        UUID gameId = UUID.randomUUID();
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game saved = invocation.getArgument(0);
+            saved.setId(gameId);
+            saved.setVersion(0L);
+            return saved;
+        });
+
+        Game game = lazyService.createCustomGame(testUser, 9, 9, 72);
+
+        assertFalse(game.isBoardGenerated());
+        assertNull(game.getBoard());
+        assertNotNull(game.getSeed());
+
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        lazyService.makeMove(testUser, gameId, 0, 0);
+        gameCache.flushDirty();
+
+        assertEquals(1L, game.getVersion());
+        assertTrue(game.isBoardGenerated());
+        assertEquals(0, game.getSafeIndex());
+        assertNotEquals(GameState.LOST, game.getState());
+        Board board = BoardCodec.decode(game.getBoard(), () -> new MinePlacer().generate(game));
+        assertEquals(72, board.getMineCount());
+        for (int index : new int[]{0, 1, 2, 9, 10, 11, 18, 19, 20}) {
+            assertFalse(board.isMine(index));
+        }
+    }
+
+    @Test
+    void testMakeMoves_StopsAtTerminalState() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        TurnResponse response = gameService.makeMoves(testUser, gameId, List.of(
+                new MoveRequest(MoveType.FLAG, 0, 0),
+                new MoveRequest(MoveType.REVEAL, 0, 0),
+                new MoveRequest(MoveType.REVEAL, 0, 1),
+                new MoveRequest(MoveType.REVEAL, 2, 2),
+                new MoveRequest(MoveType.UNFLAG, 0, 0)));
+
+        assertEquals(List.of(MoveOutcome.FLAGGED, MoveOutcome.IGNORED, MoveOutcome.REVEALED,
+                        MoveOutcome.REVEALED, MoveOutcome.NOT_APPLIED),
+                response.getResults().stream().map(MoveResult::getOutcome).toList());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, response.getDelta().getRevealed());
+        assertArrayEquals(new int[]{1, 0, 1, 1, 0, 0, 0, 0}, response.getDelta().getCounts());
+        assertArrayEquals(new int[]{0}, response.getDelta().getFlagged());
+        assertArrayEquals(new int[]{0}, response.getDelta().getMines());
+        assertEquals(GameState.WON, response.getState());
+        Board board = BoardCodec.decode(game.getBoard());
+        assertTrue(board.isFlagged(0));
+        assertTrue(board.isWon());
+        verify(gameRepository, times(1)).updateProgress(game);
+    }
+
+    @Test
+    void testMakeMoves_ChordMergesOpenedSquaresIntoOneDelta() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        TurnResponse response = gameService.makeMoves(testUser, gameId, List.of(
+                new MoveRequest(MoveType.REVEAL, 0, 1),
+                new MoveRequest(MoveType.CHORD, 0, 1),
+                new MoveRequest(MoveType.FLAG, 0, 0),
+                new MoveRequest(MoveType.CHORD, 0, 1)));
+
+        assertEquals(List.of(MoveOutcome.REVEALED, MoveOutcome.IGNORED, MoveOutcome.FLAGGED, MoveOutcome.REVEALED),
+                response.getResults().stream().map(MoveResult::getOutcome).toList());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8}, response.getDelta().getRevealed());
+        assertEquals(GameState.WON, response.getState());
+        assertEquals(3, game.getMoveCount());
+    }
+
+    @Test
+    void testChordOntoAMineKeepsTheSafeCountInStep() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        // The flag is on a safe square, so the chord opens the mine along with the other neighbours
+        TurnResponse response = gameService.makeMoves(testUser, gameId, List.of(
+                new MoveRequest(MoveType.REVEAL, 1, 1),
+                new MoveRequest(MoveType.FLAG, 0, 1),
+                new MoveRequest(MoveType.CHORD, 1, 1)));
+
+        assertEquals(MoveOutcome.MINE, response.getResults().get(2).getOutcome());
+        assertEquals(GameState.LOST, response.getState());
+        assertEquals(7, response.getRevealedSafeCount());
+        assertEquals(7, game.getRevealedSafeCount());
+    }
+
+    @Test
+    void testGetHint_UsesTheMineCount() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        gameService.makeMove(testUser, gameId, 0, 1);
+
+        // The only mine touches the 1, so the bottom row is safe although no number covers it
+        HintResponse hint = gameService.getHint(testUser, gameId);
+
+        assertEquals(Hint.Kind.SAFE, hint.getKind());
+        assertEquals(2, hint.getRow());
+        assertEquals(0, hint.getCol());
+        assertEquals(0, hint.getMineProbability());
+    }
+
+    @Test
+    void testMakeMoves_InvalidMoveLeavesGameUntouched() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        byte[] snapshot = game.getBoard();
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        assertThrows(IllegalStateException.class, () -> gameService.makeMoves(testUser, gameId, List.of(
+                new MoveRequest(MoveType.REVEAL, 2, 2),
+                new MoveRequest(MoveType.REVEAL, 3, 0))));
+        gameCache.flushDirty();
+
+        assertEquals(GameState.IN_PROGRESS, game.getState());
+        assertEquals(0, game.getRevealedSafeCount());
+        assertSame(snapshot, game.getBoard());
+        verify(gameRepository, never()).updateProgress(any(Game.class));
+    }
+
+    @Test
+    void testGetGameView_DenseBoard() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        gameService.makeMove(testUser, gameId, 0, 1);
+
+        GameResponse view = gameService.getGameView(gameId, true);
+
+        assertEquals(gameId, view.getId());
+        assertEquals(testUser.getId(), view.getUserId());
+        assertEquals(1, BoardGrid.get(view.getBoard(), 1));
+        assertEquals(BoardGrid.HIDDEN, BoardGrid.get(view.getBoard(), 0));
+        assertEquals(BoardGrid.HIDDEN, BoardGrid.get(view.getBoard(), 8));
+        assertNull(gameService.getGameView(gameId, false).getBoard());
+    }
+
+    @Test
+    void testMovesAreMeteredByDifficulty() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        gameService.makeMove(testUser, gameId, 2, 2);
+
+        assertEquals(1, meterRegistry.get("minesweeper.turn").tag("difficulty", GameMetrics.CUSTOM).timer().count());
+        assertEquals(8, meterRegistry.get("minesweeper.reveal.squares").tag("difficulty", GameMetrics.CUSTOM)
+                .summary().totalAmount());
+        assertEquals(0, meterRegistry.get("minesweeper.turn").tag("difficulty", "EASY").timer().count());
+    }
+
+    @Test
+    void testConcurrentModificationDropsCachedGame() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.updateProgress(game)).thenReturn(0);
+
+        gameService.makeMove(testUser, gameId, 0, 1);
+        gameCache.flushDirty();
+
+        assertEquals(0L, game.getVersion());
+        assertNull(gameCache.getIfCached(gameId));
+        assertEquals(0, gameCache.dirtyCount());
+
+        // The player's next move is told that the earlier one was lost, and the one after reloads
+        when(gameRepository.updateProgress(game)).thenReturn(1);
+        assertThrows(OptimisticLockingFailureException.class, () -> gameService.makeMove(testUser, gameId, 0, 1));
+        gameService.makeMove(testUser, gameId, 0, 1);
+        assertNotNull(gameCache.getIfCached(gameId));
+    }
+
+    @Test
+    void testFinishedGameIsCountedOnceAFailedWriteIsRetried() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.updateProgress(game))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(1);
+
+        TurnResponse response = gameService.makeMoves(testUser, gameId, List.of(new MoveRequest(MoveType.REVEAL, 0, 0)));
+
+        assertEquals(GameState.LOST, response.getState());
+        assertEquals(0, userStats.pendingCount());
+        gameCache.flushDirty();
+        assertEquals(1, userStats.pendingCount());
+        assertEquals(1L, game.getVersion());
+    }
+
+    @Test
+    void testConflictingFinishIsReportedAndNotCounted() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        when(gameRepository.updateProgress(game)).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> gameService.makeMoves(testUser, gameId, List.of(new MoveRequest(MoveType.REVEAL, 0, 0))));
+
+        assertEquals(0, userStats.pendingCount());
+        assertEquals(0L, game.getVersion());
+        assertNull(gameCache.getIfCached(gameId));
+        assertEquals(1.0, meterRegistry.get("minesweeper.cache.conflicts").counter().count());
+    }
+
+    @Test
+    void testSubscribersReceiveSnapshotThenMoveDeltas() throws Exception {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        BlockingQueue<GameEvent> events = new LinkedBlockingQueue<>();
+        CountDownLatch closed = new CountDownLatch(1);
+
+        Runnable subscription = gameService.subscribe(gameId, new EventSink() {
+            @Override
+            public void send(GameEvent event) {
+                events.add(event);
+            }
+
+            @Override
+            public void close(Throwable reason) {
+                closed.countDown();
+            }
+        });
+        gameService.makeMove(testUser, gameId, 0, 1);
+        gameService.makeMoves(testUser, gameId, List.of(new MoveRequest(MoveType.REVEAL, 0, 0)));
+
+        assertNotNull(subscription);
+        GameEvent snapshot = events.poll(10, TimeUnit.SECONDS);
+        assertEquals(GameEvent.Type.SNAPSHOT, snapshot.getType());
+        assertEquals(0, snapshot.getSequence());
+        assertEquals(BoardGrid.HIDDEN, BoardGrid.get(snapshot.getGame().getBoard(), 1));
+
+        GameEvent move = events.poll(10, TimeUnit.SECONDS);
+        assertEquals(GameEvent.Type.MOVE, move.getType());
+        assertEquals(1, move.getSequence());
+        assertArrayEquals(new int[]{1}, move.getDelta().getRevealed());
+
+        GameEvent end = events.poll(10, TimeUnit.SECONDS);
+        assertEquals(2, end.getSequence());
+        assertEquals(GameState.LOST, end.getState());
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertNull(gameService.subscribe(UUID.randomUUID(), mock(EventSink.class)));
+    }
+
+    @Test
+    void testFinishedGamesAreCountedOffTheMovePath() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+        assignIdsOnSave();
+        gameService.createCustomGame(testUser, 3, 3, 1);
+
+        gameService.makeMove(testUser, gameId, 0, 0);
+
+        verifyNoInteractions(userStatsRepository);
+        assertEquals(1, userStats.pendingCount());
+        userStats.flush();
+        verify(userStatsRepository).addAll(List.of(Map.entry(testUser.getId(), new StatsDelta(1, 0, 1))));
+        assertEquals(0, userStats.pendingCount());
+    }
+
+    @Test
+    void testStandardGameClaimsPooledBoard() throws Exception {
+        boardPool.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (boardPool.depth(GameDifficulty.EASY) < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assignIdsOnSave();
+        Game game = gameService.createStandardGame(testUser, GameDifficulty.EASY);
+        gameService.createCustomGame(testUser, 9, 9, 10);
+
+        assertEquals(1, meterRegistry.get("minesweeper.board.pool.claims").tag("difficulty", "EASY")
+                .tag("result", "hit").counter().count());
+        assertEquals(0, meterRegistry.get("minesweeper.board.pool.claims").tag("difficulty", "EASY")
+                .tag("result", "miss").counter().count());
+        // The claimed board is the one the game's seed regenerates
+        Board regenerated = new MinePlacer().generate(game);
+        Board claimed = BoardCodec.decode(game.getBoard(), () -> regenerated);
+        for (int index = 0; index < claimed.size(); index++) {
+            assertEquals(regenerated.isMine(index), claimed.isMine(index));
+        }
+        assertEquals(10, claimed.getMineCount());
+    }
+
+    @Test
+    void testEffectiveMovesAreLoggedWithTheFlush() {
+        UUID gameId = UUID.randomUUID();
+        Game game = snapshotGame(gameId);
+        when(gameRepository.findById(gameId)).thenReturn(Optional.of(game));
+
+        gameService.makeMoves(testUser, gameId, List.of(
+                new MoveRequest(MoveType.FLAG, 0, 0),
+                new MoveRequest(MoveType.FLAG, 0, 0),
+                new MoveRequest(MoveType.REVEAL, 0, 1)));
+        verifyNoInteractions(moveLogRepository);
+        gameCache.flushDirty();
+
+        // The repeated flag changed nothing and is not logged
+        assertEquals(2, game.getMoveCount());
+        verify(moveLogRepository).append(eq(gameId), eq(0), eq(2), any(byte[].class));
+    }
+
+    @Test
+    void testNoGuessGameIsSolvableFromTheFirstMove() {
+        assignIdsOnSave();
+        Game game = gameService.createNoGuessGame(testUser, GameDifficulty.EASY);
+        assertTrue(game.isNoGuess());
+        assertFalse(game.isBoardGenerated());
+
+        gameService.makeMove(testUser, game.getId(), 4, 4);
+
+        Board board = new MinePlacer().generate(game);
+        assertEquals(40, game.getSafeIndex());
+        assertTrue(solver.isSolvable(board, 40));
+        assertEquals(1, meterRegistry.get("minesweeper.board.noguess.boards").tag("difficulty", "EASY")
+                .tag("result", "solved").counter().count());
+    }
+
+    private void assignIdsOnSave() {
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> {
+            Game created = invocation.getArgument(0);
+            created.setId(UUID.randomUUID());
+            return created;
+        });
+    }
+
+    private Game snapshotGame(UUID gameId) {
+        Game game = new Game(testUser, 3, 3, 1);
+        game.setId(gameId);
+        game.setVersion(0L);
+
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 0));
+        board.computeCounts();
+        game.setBoard(BoardCodec.encode(board));
+        return game;
+    }
+
+    private GameServiceImpl createService(boolean lazyGeneration) {
+        meterRegistry = new SimpleMeterRegistry();
+        userStats = new UserStatsAggregator(userStatsRepository, userRepository, TransactionOperations.withoutTransaction(),
+                new Leaderboard(10), 100);
+        MinePlacer minePlacer = new MinePlacer();
+        boardPool = new BoardPool(minePlacer, 2, 1);
+        boardPool.bindTo(meterRegistry);
+        BoardStore boardStore = new SnapshotBoardStore(gameRepository, cellRepository, minePlacer);
+        gameCache = new GameCache(boardStore, new GameHistory(moveLogRepository, gameArchiveRepository, minePlacer, 256), TransactionOperations.withoutTransaction(), 100, Duration.ofMinutes(1), 10);
+        gameCache.bindTo(meterRegistry);
+        solver = new Solver(1, 100_000);
+        noGuessGenerator = new NoGuessGenerator(minePlacer, solver, 2, 1, Map.of(GameDifficulty.EASY, Duration.ofSeconds(5)));
+        noGuessGenerator.bindTo(meterRegistry);
+        return new GameServiceImpl(userService, gameRepository, userRepository, boardStore, minePlacer,
+                boardPool, gameCache, new GameLocks(), new GameMetrics(meterRegistry), new GameEventBus(16, 1, Duration.ofSeconds(5)), userStats,
+                solver, noGuessGenerator, new ClusterMembership("", List.of(), 128), lazyGeneration);
+    }
+
+    private List<Cell> createCells(Game game, int[][] mines) {
+        // Legacy games predate the safe cell counters and are backfilled on load
+        game.setRevealedSafeCount(null);
+        game.setTotalSafeCount(null);
+
+        List<Cell> cells = new ArrayList<>();
+        for (int row = 0; row < game.getHeight(); row++) {
+            for (int col = 0; col < game.getWidth(); col++) {
+                cells.add(new Cell(game, row, col));
+            }
+        }
+        for (int[] mine : mines) {
+            cellAt(cells, mine[0], mine[1]).setHasMine(true);
+        }
+        return cells;
+    }
+
+    private Cell cellAt(List<Cell> cells, int row, int col) {
+        return cells.stream()
+                .filter(cell -> cell.getRow() == row && cell.getCol() == col)
+                .findFirst()
+                .orElseThrow();
     }
-}
\ No newline at end of file
+}
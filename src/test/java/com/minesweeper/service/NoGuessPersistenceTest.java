@@ -0,0 +1,146 @@
+package com.minesweeper.service;
+
+import com.minesweeper.cache.GameCache;
+import com.minesweeper.cache.GameLocks;
+import com.minesweeper.cluster.ClusterMembership;
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.BoardPool;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.event.GameEventBus;
+import com.minesweeper.history.GameHistory;
+import com.minesweeper.metrics.GameMetrics;
+import com.minesweeper.model.Game;
+import com.minesweeper.model.GameDifficulty;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.CellRepository;
+import com.minesweeper.repository.GameArchiveRepository;
+import com.minesweeper.repository.GameRepository;
+import com.minesweeper.repository.MoveLogRepository;
+import com.minesweeper.repository.UserRepository;
+import com.minesweeper.repository.UserStatsRepository;
+import com.minesweeper.service.impl.GameServiceImpl;
+import com.minesweeper.service.impl.SnapshotBoardStore;
+import com.minesweeper.solver.NoGuessGenerator;
+import com.minesweeper.solver.Solver;
+import com.minesweeper.stats.Leaderboard;
+import com.minesweeper.stats.UserStatsAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Plays no-guess games on H2 through the real repositories and checks that the seed found on the
+ * first move is what the game reloads from once it has left the cache.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:noguess;NON_KEYWORDS=ROW,USER,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.liquibase.change-log=classpath:db/changelog/test-changelog.xml"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MoveLogRepository.class, GameArchiveRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NoGuessPersistenceTest {
+    private final MinePlacer minePlacer = new MinePlacer();
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private CellRepository cellRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MoveLogRepository moveLogRepository;
+
+    @Autowired
+    private GameArchiveRepository gameArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BoardStore boardStore;
+    private GameHistory history;
+    private GameCache gameCache;
+    private Solver solver;
+    private NoGuessGenerator noGuessGenerator;
+    private BoardPool boardPool;
+    private GameServiceImpl gameService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        boardStore = new SnapshotBoardStore(gameRepository, cellRepository, minePlacer);
+        history = new GameHistory(moveLogRepository, gameArchiveRepository, minePlacer, 256);
+        gameCache = new GameCache(boardStore, history, transactions, 100, Duration.ofMinutes(1), 10);
+        solver = new Solver(1, 1_000_000);
+        noGuessGenerator = new NoGuessGenerator(minePlacer, solver, 2, 1, Map.of(GameDifficulty.EASY, Duration.ofSeconds(10)));
+        boardPool = new BoardPool(minePlacer, 0, 1);
+        user = userRepository.save(new User(null, "noguess-" + UUID.randomUUID(), 0, 0, 0));
+        UserService userService = mock(UserService.class);
+        when(userService.getUserById(user.getId())).thenReturn(Optional.of(user));
+        UserStatsAggregator userStats = new UserStatsAggregator(mock(UserStatsRepository.class), userRepository,
+                transactions, new Leaderboard(10), 100);
+        gameService = new GameServiceImpl(userService, gameRepository, userRepository, boardStore, minePlacer,
+                boardPool, gameCache, new GameLocks(), new GameMetrics(meterRegistry), new GameEventBus(16, 1, Duration.ofSeconds(5)),
+                userStats, solver, noGuessGenerator, new ClusterMembership("", List.of(), 128), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        boardPool.shutdown();
+        noGuessGenerator.shutdown();
+        solver.shutdown();
+    }
+
+    @Test
+    void testReloadedGameKeepsTheSolvableLayout() {
+        Game game = gameService.createNoGuessGame(user, GameDifficulty.EASY);
+        long createdSeed = game.getSeed();
+        gameService.makeMove(user, game.getId(), 4, 4);
+        Board played = gameCache.getIfCached(game.getId()).getBoard().copy();
+        assertNotEquals(createdSeed, game.getSeed());
+
+        // Written by the scheduled flush, then dropped as on eviction or a restart
+        gameCache.flushDirty();
+        assertEquals(List.of(game.getId()), gameService.releaseGames(game.getId()::equals));
+        assertNull(gameCache.getIfCached(game.getId()));
+
+        Game reloaded = gameRepository.findById(game.getId()).orElseThrow();
+        assertEquals(game.getSeed(), reloaded.getSeed());
+        assertSameBoard(played, boardStore.load(reloaded));
+        assertSameBoard(played, history.replay(reloaded, reloaded.getMoveCount()).board());
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        for (int index = 0; index < expected.size(); index++) {
+            assertEquals(expected.isMine(index), actual.isMine(index), "mine at " + index);
+            assertEquals(expected.isRevealed(index), actual.isRevealed(index), "revealed at " + index);
+        }
+    }
+}
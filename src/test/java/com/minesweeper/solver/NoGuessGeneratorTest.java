@@ -0,0 +1,84 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.model.GameDifficulty;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class NoGuessGeneratorTest {
+    private final MinePlacer minePlacer = new MinePlacer();
+    private final Solver solver = new Solver(1, 1_000_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NoGuessGenerator generator;
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+        solver.shutdown();
+    }
+
+    @Test
+    void testFindsSolvableSeeds() {
+        generator = new NoGuessGenerator(minePlacer, solver, 4, 1, Map.of(
+                GameDifficulty.MEDIUM, Duration.ofSeconds(10), GameDifficulty.OLYMPIC, Duration.ofSeconds(20)));
+        generator.bindTo(meterRegistry);
+
+        for (GameDifficulty difficulty : new GameDifficulty[]{GameDifficulty.MEDIUM, GameDifficulty.OLYMPIC}) {
+            int safeIndex = difficulty.getWidth() + 1;
+            OptionalLong seed = generator.findSeed(difficulty, safeIndex);
+
+            assertTrue(seed.isPresent());
+            assertTrue(solver.isSolvable(minePlacer.generate(difficulty.getWidth(), difficulty.getHeight(),
+                    difficulty.getMines(), seed.getAsLong(), safeIndex), safeIndex));
+            double solvable = meterRegistry.get("minesweeper.board.noguess.candidates")
+                    .tag("difficulty", difficulty.name()).tag("result", "solvable").counter().count();
+            assertTrue(solvable >= 1);
+            assertEquals(1, meterRegistry.get("minesweeper.board.noguess.attempts")
+                    .tag("difficulty", difficulty.name()).summary().count());
+        }
+    }
+
+    @Test
+    void testFallsBackWhenBudgetIsExceeded() {
+        generator = new NoGuessGenerator(minePlacer, solver, 2, 1, Map.of(GameDifficulty.OLYMPIC, Duration.ZERO));
+        generator.bindTo(meterRegistry);
+
+        assertTrue(generator.findSeed(GameDifficulty.OLYMPIC, 0).isEmpty());
+        assertEquals(1, meterRegistry.get("minesweeper.board.noguess.boards").tag("difficulty", "OLYMPIC")
+                .tag("result", "fallback").counter().count());
+    }
+
+    @Test
+    void testFallsBackAtOnceWhenEverySearchSlotIsTaken() throws Exception {
+        // Nothing is ever solvable, so the first search holds its slot for the whole budget
+        Solver unsolvable = mock(Solver.class);
+        generator = new NoGuessGenerator(minePlacer, unsolvable, 2, 1, Map.of(GameDifficulty.OLYMPIC, Duration.ofSeconds(30)));
+        generator.bindTo(meterRegistry);
+        CompletableFuture<OptionalLong> running = CompletableFuture.supplyAsync(() -> generator.findSeed(GameDifficulty.OLYMPIC, 0));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("minesweeper.board.noguess.candidates").tag("difficulty", "OLYMPIC")
+                .tag("result", "unsolvable").counter().count() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        assertTrue(generator.findSeed(GameDifficulty.OLYMPIC, 0).isEmpty());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, meterRegistry.get("minesweeper.board.noguess.boards").tag("difficulty", "OLYMPIC")
+                .tag("result", "busy").counter().count());
+        assertFalse(running.isDone());
+        generator.shutdown();
+        assertTrue(running.get(10, TimeUnit.SECONDS).isEmpty());
+    }
+}
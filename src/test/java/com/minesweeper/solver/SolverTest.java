@@ -0,0 +1,223 @@
+package com.minesweeper.solver;
+
+import com.minesweeper.engine.Board;
+import com.minesweeper.engine.MinePlacer;
+import com.minesweeper.engine.Moves;
+import com.minesweeper.model.MoveOutcome;
+import com.minesweeper.model.MoveType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverTest {
+    private final Solver solver = new Solver(2, 1_000_000);
+
+    @AfterEach
+    void tearDown() {
+        solver.shutdown();
+    }
+
+    @Test
+    void testProbabilitiesMatchBruteForce() {
+        Random random = new Random(42);
+        MinePlacer minePlacer = new MinePlacer();
+        for (int round = 0; round < 200; round++) {
+            Board board = minePlacer.generate(6, 5, 5, random.nextLong());
+            BitSet changed = new BitSet();
+            for (int reveals = random.nextInt(4) + 1; reveals > 0; reveals--) {
+                int index = random.nextInt(board.size());
+                if (!board.isMine(index)) {
+                    Moves.apply(board, MoveType.REVEAL, index, changed);
+                }
+            }
+            if (board.isWon()) {
+                continue;
+            }
+
+            Analysis analysis = solver.analyze(board);
+            double[] expected = bruteForce(board);
+
+            assertTrue(analysis.exact());
+            for (int index = 0; index < board.size(); index++) {
+                if (board.isRevealed(index)) {
+                    continue;
+                }
+                assertEquals(expected[index], analysis.probability(index), 1e-9, "round " + round + ", square " + index);
+                assertEquals(expected[index] == 0, analysis.safe().get(index), "round " + round + ", square " + index);
+                assertEquals(expected[index] == 1, analysis.mines().get(index), "round " + round + ", square " + index);
+            }
+        }
+    }
+
+    @Test
+    void testSubsetReduction() {
+        // Row 0 hidden; the 1 at (1, 0) covers (0, 0) and (0, 1), the 1 at (1, 1) covers (0, 0) to (0, 2)
+        Board board = new Board(3, 3);
+        board.placeMine(board.index(0, 1));
+        board.computeCounts();
+        for (int index = board.index(1, 0); index < board.size(); index++) {
+            board.reveal(index);
+        }
+
+        Analysis analysis = solver.analyze(board);
+
+        assertTrue(analysis.safe().get(board.index(0, 2)));
+        assertTrue(analysis.safe().get(board.index(0, 0)));
+        assertTrue(analysis.mines().get(board.index(0, 1)));
+    }
+
+    @Test
+    void testLargeComponentIsEstimated() {
+        // Columns 0 and 2 hidden with a mine on the left every third row; the numbers cannot tell
+        // left from right, so the hidden rows left unsettled form one component down the board
+        int height = 4_500;
+        Board board = new Board(3, height);
+        for (int row = 0; row < height; row += 3) {
+            board.placeMine(board.index(row, 0));
+        }
+        board.computeCounts();
+        for (int row = 0; row < height; row++) {
+            board.reveal(board.index(row, 1));
+        }
+
+        Analysis analysis = solver.analyze(board);
+
+        assertFalse(analysis.exact());
+        for (int row = 2; row < height - 1; row += 3) {
+            assertTrue(analysis.safe().get(board.index(row, 0)), "row " + row);
+            assertTrue(analysis.safe().get(board.index(row, 2)), "row " + row);
+        }
+    }
+
+    @Test
+    void testHintNeverPointsAtAMine() {
+        MinePlacer minePlacer = new MinePlacer();
+        Random random = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            Board board = minePlacer.generate(30, 16, 99, random.nextLong());
+            BitSet changed = new BitSet();
+            int start = firstZero(board);
+            Moves.apply(board, MoveType.REVEAL, start, changed);
+            while (!board.isWon()) {
+                Hint hint = solver.hint(board);
+                if (hint.kind() == Hint.Kind.GUESS) {
+                    assertTrue(hint.mineProbability() > 0 && hint.mineProbability() < 1);
+                    break;
+                }
+                assertEquals(MoveOutcome.REVEALED, Moves.apply(board, MoveType.REVEAL, hint.index(), changed));
+            }
+        }
+    }
+
+    @Test
+    void testIsSolvable() {
+        Board open = new Board(3, 3);
+        open.placeMine(open.index(0, 0));
+        open.computeCounts();
+        assertTrue(solver.isSolvable(open, open.index(2, 2)));
+        assertFalse(solver.isSolvable(open, open.index(0, 0)));
+
+        // Whatever is opened first, the two squares left of the 1s cannot be told apart
+        Board coinFlip = new Board(2, 2);
+        coinFlip.placeMine(coinFlip.index(0, 0));
+        coinFlip.computeCounts();
+        assertFalse(solver.isSolvable(coinFlip, coinFlip.index(1, 1)));
+    }
+
+    @Test
+    void testSearchBeyondBudgetIsInexact() {
+        Solver bounded = new Solver(1, 1);
+        try {
+            Board board = new MinePlacer().generate(30, 16, 99, 3L);
+            BitSet changed = new BitSet();
+            Moves.apply(board, MoveType.REVEAL, firstZero(board), changed);
+
+            Analysis analysis = bounded.analyze(board);
+
+            assertFalse(analysis.exact());
+            for (int index = 0; index < board.size(); index++) {
+                if (analysis.safe().get(index)) {
+                    assertFalse(board.isMine(index));
+                }
+                if (analysis.mines().get(index)) {
+                    assertTrue(board.isMine(index));
+                }
+                if (!board.isRevealed(index)) {
+                    assertFalse(Double.isNaN(analysis.probability(index)));
+                }
+            }
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    private static int firstZero(Board board) {
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isMine(index) && board.getCount(index) == 0) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("No empty square.");
+    }
+
+    /**
+     * Mine probabilities from every layout of the hidden squares that fits the revealed numbers.
+     */
+    private static double[] bruteForce(Board board) {
+        List<Integer> hidden = new ArrayList<>();
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isRevealed(index)) {
+                hidden.add(index);
+            }
+        }
+        double[] mines = new double[board.size()];
+        long[] layouts = new long[1];
+        choose(board, hidden, 0, board.getMineCount(), new BitSet(), mines, layouts);
+        for (int index = 0; index < mines.length; index++) {
+            mines[index] /= layouts[0];
+        }
+        return mines;
+    }
+
+    private static void choose(Board board, List<Integer> hidden, int from, int left, BitSet layout,
+                               double[] mines, long[] layouts) {
+        if (left == 0) {
+            if (fits(board, layout)) {
+                layouts[0]++;
+                layout.stream().forEach(index -> mines[index]++);
+            }
+            return;
+        }
+        for (int i = from; i <= hidden.size() - left; i++) {
+            layout.set(hidden.get(i));
+            choose(board, hidden, i + 1, left - 1, layout, mines, layouts);
+            layout.clear(hidden.get(i));
+        }
+    }
+
+    private static boolean fits(Board board, BitSet layout) {
+        int[] neighbours = new int[8];
+        for (int index = 0; index < board.size(); index++) {
+            if (!board.isRevealed(index)) {
+                continue;
+            }
+            int count = board.neighbours(index, neighbours);
+            int around = 0;
+            for (int i = 0; i < count; i++) {
+                if (layout.get(neighbours[i])) {
+                    around++;
+                }
+            }
+            if (around != board.getCount(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
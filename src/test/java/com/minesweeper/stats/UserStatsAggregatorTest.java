@@ -0,0 +1,118 @@
+package com.minesweeper.stats;
+
+import com.minesweeper.dto.LeaderboardEntry;
+import com.minesweeper.model.GameState;
+import com.minesweeper.model.User;
+import com.minesweeper.repository.UserRepository;
+import com.minesweeper.repository.UserStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class UserStatsAggregatorTest {
+    private final Map<UUID, User> users = new HashMap<>();
+    private final UserStatsRepository userStatsRepository = mock(UserStatsRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final Leaderboard leaderboard = new Leaderboard(3);
+    private UserStatsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new UserStatsAggregator(userStatsRepository, userRepository,
+                TransactionOperations.withoutTransaction(), leaderboard, 2);
+        doAnswer(invocation -> {
+            List<Map.Entry<UUID, StatsDelta>> deltas = invocation.getArgument(0);
+            for (Map.Entry<UUID, StatsDelta> entry : deltas) {
+                User user = users.get(entry.getKey());
+                user.setGamesPlayed(user.getGamesPlayed() + entry.getValue().played());
+                user.setGamesWon(user.getGamesWon() + entry.getValue().won());
+                user.setGamesLost(user.getGamesLost() + entry.getValue().lost());
+            }
+            return null;
+        }).when(userStatsRepository).addAll(anyList());
+        when(userRepository.findAllById(any())).thenAnswer(invocation -> {
+            List<User> found = new ArrayList<>();
+            ((Iterable<UUID>) invocation.getArgument(0)).forEach(id -> found.add(users.get(id)));
+            return found;
+        });
+    }
+
+    @Test
+    void testIncrementsAreCoalescedPerUserAndWrittenInBatches() {
+        User alice = user("alice");
+        User bob = user("bob");
+        User carol = user("carol");
+        for (int i = 0; i < 5; i++) {
+            aggregator.gameCreated(alice);
+            aggregator.gameFinished(alice, i < 3 ? GameState.WON : GameState.LOST);
+        }
+        aggregator.gameCreated(bob);
+        aggregator.gameFinished(bob, GameState.IN_PROGRESS);
+        aggregator.gameCreated(carol);
+        aggregator.gameFinished(carol, GameState.WON);
+
+        assertEquals(3, aggregator.pendingCount());
+        aggregator.flush();
+
+        // Three users with a batch size of two
+        verify(userStatsRepository, times(2)).addAll(anyList());
+        assertEquals(0, aggregator.pendingCount());
+        assertEquals(5, alice.getGamesPlayed());
+        assertEquals(3, alice.getGamesWon());
+        assertEquals(2, alice.getGamesLost());
+        assertEquals(1, bob.getGamesPlayed());
+        assertEquals(0, bob.getGamesWon());
+        assertEquals(List.of("alice", "carol", "bob"), usernames(leaderboard.top(10)));
+    }
+
+    @Test
+    void testFailedBatchIsRetried() {
+        User alice = user("alice");
+        aggregator.gameFinished(alice, GameState.WON);
+        doThrow(new QueryTimeoutException("timeout")).doCallRealMethod().when(userStatsRepository).addAll(anyList());
+
+        aggregator.flush();
+        aggregator.gameFinished(alice, GameState.WON);
+
+        assertEquals(1, aggregator.pendingCount());
+        reset(userStatsRepository);
+        aggregator.flush();
+        verify(userStatsRepository).addAll(List.of(Map.entry(alice.getId(), new StatsDelta(0, 2, 0))));
+    }
+
+    @Test
+    void testLeaderboardKeepsTopUsers() {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(new LeaderboardEntry(UUID.randomUUID(), "user" + i, 10, i, 10 - i));
+        }
+        leaderboard.offer(entries);
+        assertEquals(List.of("user4", "user3", "user2"), usernames(leaderboard.top(10)));
+
+        LeaderboardEntry user0 = entries.get(0);
+        leaderboard.offer(List.of(new LeaderboardEntry(user0.getUserId(), "user0", 20, 5, 15)));
+        assertEquals(List.of("user0", "user4"), usernames(leaderboard.top(2)));
+        assertEquals(3, leaderboard.top(10).size());
+        assertTrue(leaderboard.top(-1).isEmpty());
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        users.put(user.getId(), user);
+        return user;
+    }
+
+    private static List<String> usernames(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getUsername).toList();
+    }
+}